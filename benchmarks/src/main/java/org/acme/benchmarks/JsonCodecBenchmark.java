@@ -0,0 +1,110 @@
+package org.acme.benchmarks;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.acme.api.PaymentsResource;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentRequest;
+import org.acme.infrastructure.PaymentJsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PaymentJsonCodec} against JSON-B (Yasson) on the three payloads of the payment hot path, both working on
+ * bytes as the JAX-RS providers do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private static final byte[] PAYMENT_REQUEST = "{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":19.90}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final RemotePaymentRequest remotePaymentRequest = new RemotePaymentRequest(
+            "4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", new BigDecimal("19.90"), Instant.parse("2025-07-21T10:00:00.123Z"));
+
+    private final PaymentsSummary paymentsSummary = PaymentsSummary.of(
+            PaymentSummary.of(8_123L, new BigDecimal("161647.70")),
+            PaymentSummary.of(1_456L, new BigDecimal("28974.40")));
+
+    private Jsonb jsonb;
+    private byte[] paymentsSummaryJson;
+
+    @Setup(Level.Trial)
+    public void createJsonb() {
+        jsonb = JsonbBuilder.create();
+        paymentsSummaryJson = PaymentJsonCodec.write(paymentsSummary);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeJsonb() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public PaymentsResource.PaymentRequest readPaymentRequestJsonb() {
+        return jsonb.fromJson(new ByteArrayInputStream(PAYMENT_REQUEST), PaymentsResource.PaymentRequest.class);
+    }
+
+    @Benchmark
+    public NewPaymentRequest readPaymentRequestCodec() {
+        return PaymentJsonCodec.readNewPaymentRequest(PAYMENT_REQUEST, 0, PAYMENT_REQUEST.length);
+    }
+
+    @Benchmark
+    public byte[] writeRemotePaymentRequestJsonb() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        jsonb.toJson(remotePaymentRequest, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeRemotePaymentRequestCodec() {
+        return PaymentJsonCodec.write(remotePaymentRequest);
+    }
+
+    @Benchmark
+    public byte[] writePaymentsSummaryJsonb() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        jsonb.toJson(paymentsSummary, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writePaymentsSummaryCodec() {
+        return PaymentJsonCodec.write(paymentsSummary);
+    }
+
+    @Benchmark
+    public PaymentsSummary readPaymentsSummaryJsonb() {
+        return jsonb.fromJson(new ByteArrayInputStream(paymentsSummaryJson), PaymentsSummary.class);
+    }
+
+    @Benchmark
+    public PaymentsSummary readPaymentsSummaryCodec() {
+        return PaymentJsonCodec.readPaymentsSummary(paymentsSummaryJson, 0, paymentsSummaryJson.length);
+    }
+}
@@ -0,0 +1,129 @@
+package org.acme.benchmarks;
+
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+import org.acme.infrastructure.DurablePaymentQueue;
+import org.acme.infrastructure.LinkedPaymentQueue;
+import org.acme.infrastructure.RingBufferPaymentQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Intake queue throughput with 4 HTTP-side producers and 4 worker-side consumers, for each {@code worker.queue}
+ * implementation. Consumers either poll one request at a time or drain batches of {@code batch.size}.
+ * Both sides are non-blocking so that neither can hang at the end of an iteration. Consumers acknowledge what they
+ * take, which only the durable queue, syncing its files every 10ms, does anything with.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class PaymentQueueBenchmark {
+
+    private static final NewPaymentRequest REQUEST = new NewPaymentRequest("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", new BigDecimal("19.90"));
+    private static final int CAPACITY = 1 << 16;
+
+    @Param({"linked", "ring-buffer", "durable"})
+    public String queue;
+
+    private PaymentQueue paymentQueue;
+    private Path directory;
+
+    @Setup(Level.Iteration)
+    public void createQueue() throws IOException {
+        paymentQueue = switch (queue) {
+            case "linked" -> new LinkedPaymentQueue(CAPACITY);
+            case "ring-buffer" -> new RingBufferPaymentQueue(CAPACITY);
+            case "durable" -> {
+                directory = Files.createTempDirectory("intake");
+                DurablePaymentQueue durable = new DurablePaymentQueue(directory, CAPACITY, DurablePaymentQueue.DEFAULT_CHUNK_BYTES, Duration.ofMillis(10));
+                durable.start();
+                yield durable;
+            }
+            default -> throw new IllegalArgumentException("Unknown payment queue: " + queue);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() throws IOException {
+        paymentQueue.clear();
+        if (directory == null)
+            return;
+        ((DurablePaymentQueue) paymentQueue).close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList())
+                Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+        directory = null;
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+
+        @Param({"25"})
+        public int batchSize;
+
+        final List<PaymentIntake> requests = new ArrayList<>();
+    }
+
+    @Benchmark
+    @Group("pollOne")
+    @GroupThreads(4)
+    public boolean pollOneOffer() {
+        return paymentQueue.offer(REQUEST);
+    }
+
+    @Benchmark
+    @Group("pollOne")
+    @GroupThreads(4)
+    public PaymentIntake pollOnePoll() {
+        PaymentIntake request = paymentQueue.poll();
+        if (request != null)
+            paymentQueue.acknowledge(request);
+        return request;
+    }
+
+    @Benchmark
+    @Group("drainBatch")
+    @GroupThreads(4)
+    public boolean drainBatchOffer() {
+        return paymentQueue.offer(REQUEST);
+    }
+
+    @Benchmark
+    @Group("drainBatch")
+    @GroupThreads(4)
+    public void drainBatchDrain(Batch batch, Blackhole blackhole) {
+        blackhole.consume(paymentQueue.drainTo(batch.requests, batch.batchSize));
+        batch.requests.forEach(paymentQueue::acknowledge);
+        batch.requests.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package org.acme.benchmarks;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.RemotePaymentName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link Payments#add} with several concurrent writers, like the {@code PaymentWorker} threads.
+ * The number of writers defaults to 4 and can be changed with JMH's {@code -t} option.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class PaymentsAddBenchmark {
+
+    @Param({"in-memory", "bucketed", "off-heap", "striped", "sorted"})
+    public String storage;
+
+    private Payments payments;
+
+    @Setup(Level.Trial)
+    public void createStorage() {
+        payments = Storages.create(storage);
+    }
+
+    @Setup(Level.Iteration)
+    public void purge() {
+        payments.purge();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private Payment payment;
+
+        @Setup(Level.Trial)
+        public void createPayment() {
+            payment = Payment.of(UUID.randomUUID().toString(), RemotePaymentName.DEFAULT, new BigDecimal("19.90"), Instant.now());
+        }
+    }
+
+    @Benchmark
+    public void add(Writer writer) {
+        payments.add(writer.payment);
+    }
+}
@@ -0,0 +1,81 @@
+package org.acme.benchmarks;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link Payments#getSummary} over {@code size} payments spread evenly across one hour, for a range
+ * covering {@code rangeWidth} of that hour (centered on it).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+@State(Scope.Benchmark)
+public class PaymentsSummaryBenchmark {
+
+    private static final Instant START = Instant.parse("2025-07-21T10:00:00Z");
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    @Param({"in-memory", "bucketed", "off-heap", "striped", "sorted"})
+    public String storage;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"0.001", "0.1", "1.0"})
+    public double rangeWidth;
+
+    private Payments payments;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        payments = Storages.create(storage);
+        long step = WINDOW.toNanos() / size;
+        BigDecimal[] amounts = {new BigDecimal("19.90"), new BigDecimal("10.50"), new BigDecimal("99.99")};
+        for (int i = 0; i < size; i++) {
+            payments.add(Payment.of(
+                    UUID.randomUUID().toString(),
+                    i % 3 == 0 ? RemotePaymentName.FALLBACK : RemotePaymentName.DEFAULT,
+                    amounts[i % amounts.length],
+                    START.plusNanos(i * step)));
+        }
+        long margin = (long) (WINDOW.toNanos() * (1.0 - rangeWidth) / 2);
+        from = START.plusNanos(margin);
+        to = START.plus(WINDOW).minusNanos(margin);
+    }
+
+    @TearDown(Level.Trial)
+    public void purge() {
+        payments.purge();
+    }
+
+    @Benchmark
+    public PaymentsSummary getSummary() {
+        return payments.getSummary(from, to);
+    }
+}
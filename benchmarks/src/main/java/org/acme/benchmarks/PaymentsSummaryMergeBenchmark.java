@@ -0,0 +1,46 @@
+package org.acme.benchmarks;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of merging the local and the peer summary, as done on every {@code /payments-summary} call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentsSummaryMergeBenchmark {
+
+    private final PaymentsSummary local = PaymentsSummary.of(
+            PaymentSummary.of(8_123L, new BigDecimal("161647.70")),
+            PaymentSummary.of(1_456L, new BigDecimal("28974.40")));
+
+    private final PaymentsSummary peer = PaymentsSummary.of(
+            PaymentSummary.of(8_077L, new BigDecimal("160732.30")),
+            PaymentSummary.of(1_502L, new BigDecimal("29889.80")));
+
+    @Benchmark
+    public PaymentsSummary add() {
+        return local.add(peer);
+    }
+
+    @Benchmark
+    public PaymentsSummary addZero() {
+        return local.add(PaymentsSummary.ZERO);
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.benchmarks;
+
+import org.acme.domain.Payments;
+import org.acme.infrastructure.BucketedPayments;
+import org.acme.infrastructure.InMemoryPayments;
+import org.acme.infrastructure.OffHeapPayments;
+import org.acme.infrastructure.SortedPayments;
+import org.acme.infrastructure.StripedPayments;
+
+/**
+ * Creates every {@code payments.storage} implementation with its default settings, by the same name used in
+ * {@code application.properties}.
+ */
+final class Storages {
+
+    private Storages() {
+    }
+
+    static Payments create(String storage) {
+        return switch (storage) {
+            case "in-memory" -> new InMemoryPayments();
+            case "bucketed" -> new BucketedPayments(BucketedPayments.DEFAULT_BUCKET_WIDTH);
+            case "off-heap" -> new OffHeapPayments(OffHeapPayments.DEFAULT_SEGMENT_SLOTS);
+            case "striped" -> new StripedPayments();
+            case "sorted" -> new SortedPayments(SortedPayments.DEFAULT_OUT_OF_ORDER_TOLERANCE);
+            default -> throw new IllegalArgumentException("Unknown payments storage: " + storage);
+        };
+    }
+}
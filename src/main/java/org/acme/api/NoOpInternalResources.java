@@ -9,6 +9,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import org.acme.domain.PaymentsSummary;
+import org.acme.domain.ProcessorsHealth;
 
 @ApplicationScoped
 @Path("/no-op")
@@ -29,6 +30,12 @@ public class NoOpInternalResources {
         // do nothing
     }
 
+    @Path("/internal/processors-health")
+    @POST
+    public void updateProcessorsHealth(ProcessorsHealth processorsHealth) {
+        // do nothing
+    }
+
     @Path("/q/health/ready")
     @GET
     public String healthReadyCheck() {
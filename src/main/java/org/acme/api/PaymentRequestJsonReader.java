@@ -0,0 +1,39 @@
+package org.acme.api;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.Provider;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.infrastructure.PaymentJsonCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+@Provider
+@Consumes(MediaType.APPLICATION_JSON)
+public class PaymentRequestJsonReader implements MessageBodyReader<PaymentsResource.PaymentRequest> {
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PaymentsResource.PaymentRequest.class;
+    }
+
+    @Override
+    public PaymentsResource.PaymentRequest readFrom(Class<PaymentsResource.PaymentRequest> type, Type genericType,
+                                                    Annotation[] annotations, MediaType mediaType,
+                                                    MultivaluedMap<String, String> httpHeaders,
+                                                    InputStream entityStream) throws IOException {
+        byte[] body = entityStream.readAllBytes();
+        try {
+            NewPaymentRequest request = PaymentJsonCodec.readNewPaymentRequest(body, 0, body.length);
+            return PaymentsResource.PaymentRequest.of(request.correlationId(), request.amount());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
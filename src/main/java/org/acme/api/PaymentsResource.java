@@ -13,6 +13,7 @@ import org.acme.domain.NewPaymentRequest;
 import org.acme.domain.PaymentWorker;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Path("/payments")
 @Consumes(MediaType.APPLICATION_JSON)
@@ -30,7 +31,7 @@ public class PaymentsResource {
             String correlationId,
             BigDecimal amount) {
         public NewPaymentRequest toNewPayment() {
-            return new NewPaymentRequest(correlationId(), amount());
+            return new NewPaymentRequest(correlationId(), amount(), 0, Instant.now());
         }
 
         @JsonbCreator
@@ -0,0 +1,91 @@
+package org.acme.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.acme.domain.PaymentWorker;
+import org.acme.domain.RawPaymentRequest;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * {@code POST /payments} answered on the event loop: the body is queued as received and decoded by the workers,
+ * skipping the JAX-RS binding and the hop to a virtual thread of {@link PaymentsResource}, which it shadows when
+ * {@code payments.intake=event-loop}. A body over {@code maxBodyBytes} is answered with 413, and with the durable
+ * queue, which appends to a file, the body is queued from a worker thread.
+ */
+@ApplicationScoped
+public class PaymentsRoute {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentsRoute.class);
+
+    private final PaymentWorker paymentWorker;
+    private final String intake;
+    private final boolean blocking;
+    private final long maxBodyBytes;
+
+    public PaymentsRoute(PaymentWorker paymentWorker,
+                         @ConfigProperty(name = "payments.intake", defaultValue = "resource")
+                         String intake,
+                         @ConfigProperty(name = "worker.queue", defaultValue = "linked")
+                         String queue,
+                         @ConfigProperty(name = "payments.intake.max-body-bytes", defaultValue = "4096")
+                         long maxBodyBytes) {
+        this.paymentWorker = paymentWorker;
+        this.intake = intake;
+        this.blocking = "durable".equals(queue);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    void register(@Observes Router router) {
+        switch (intake) {
+            case "resource" -> {
+            }
+            // ahead of the Quarkus REST handler, which never sees the request
+            case "event-loop" -> router.post("/payments").order(Integer.MIN_VALUE)
+                    .handler(BodyHandler.create(false).setBodyLimit(maxBodyBytes))
+                    .handler(this::accept);
+            default -> throw new IllegalArgumentException("Unknown payments.intake: " + intake);
+        }
+    }
+
+    private void accept(RoutingContext context) {
+        Buffer body = context.body().buffer();
+        RawPaymentRequest paymentRequest = new RawPaymentRequest(body == null ? new byte[0] : body.getBytes(), Instant.now());
+        if (blocking) {
+            context.vertx().executeBlocking(() -> paymentWorker.accept(paymentRequest), false)
+                    .onComplete(accepted -> respond(context, accepted));
+            return;
+        }
+        Future<Boolean> accepted;
+        try {
+            accepted = Future.succeededFuture(paymentWorker.accept(paymentRequest));
+        } catch (RuntimeException e) {
+            accepted = Future.failedFuture(e);
+        }
+        respond(context, accepted);
+    }
+
+    private void respond(RoutingContext context, AsyncResult<Boolean> accepted) {
+        int status;
+        if (accepted.succeeded()) {
+            status = accepted.result() ? 201 : 429;
+        } else if (accepted.cause() instanceof IllegalArgumentException) {
+            // a body the queue cannot hold
+            status = 413;
+        } else {
+            LOGGER.warn("Could not queue payment request: {}", accepted.cause().getMessage(), accepted.cause());
+            status = 503;
+        }
+        context.response().setStatusCode(status).end();
+    }
+
+}
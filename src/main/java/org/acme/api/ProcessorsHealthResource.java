@@ -0,0 +1,36 @@
+package org.acme.api;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.acme.domain.ProcessorHealthMonitor;
+import org.acme.domain.ProcessorsHealth;
+
+@Path("/internal/processors-health")
+@ApplicationScoped
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class ProcessorsHealthResource {
+
+    private final ProcessorHealthMonitor processorHealthMonitor;
+
+    public ProcessorsHealthResource(ProcessorHealthMonitor processorHealthMonitor) {
+        this.processorHealthMonitor = processorHealthMonitor;
+    }
+
+    @GET
+    public ProcessorsHealth get() {
+        return processorHealthMonitor.current();
+    }
+
+    @POST
+    public void update(ProcessorsHealth processorsHealth) {
+        processorHealthMonitor.update(processorsHealth);
+    }
+}
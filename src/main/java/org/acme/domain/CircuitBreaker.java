@@ -0,0 +1,175 @@
+package org.acme.domain;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based sliding-window circuit breaker. It opens when at least {@code failureRateThreshold} of the last
+ * {@code windowSize} calls failed (once {@code minimumCalls} were seen), rejects every call while open, and after
+ * {@code openDuration} lets a single probe through: its outcome either closes the breaker or opens it again.
+ * <p>
+ * Each transition starts a new generation, and a permit is for the generation it was acquired in: the outcome of a
+ * call that outlived it, such as one started while closed that ends after the breaker opened and let its probe
+ * through, is ignored.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    /**
+     * What {@link #acquire()} returns when the call is not permitted.
+     */
+    public static final long REJECTED = -1L;
+
+    private record Phase(State state, long generation) {
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDuration;
+    private final LongSupplier nanoClock;
+    private final TransitionListener listener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failed;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openUntil;
+    private volatile Phase phase = new Phase(State.CLOSED, 0L);
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos,
+                          TransitionListener listener) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDurationNanos, System::nanoTime, listener);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos,
+                   LongSupplier nanoClock, TransitionListener listener) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize)
+            throw new IllegalArgumentException("Minimum calls must be between 1 and the window size");
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1)
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDurationNanos;
+        this.nanoClock = nanoClock;
+        this.listener = listener;
+        this.failed = new boolean[windowSize];
+    }
+
+    public State state() {
+        return phase.state();
+    }
+
+    /**
+     * The permit for a call made now, or {@link #REJECTED}. Every permitted call must be followed by
+     * {@link #onSuccess(long)} or {@link #onFailure(long)} with its permit, otherwise a half-open breaker would wait
+     * for its probe forever.
+     */
+    public long acquire() {
+        Phase current = phase;
+        if (current.state() == State.CLOSED)
+            return current.generation();
+        lock.lock();
+        try {
+            if (phase.state() == State.OPEN && nanoClock.getAsLong() - openUntil >= 0) {
+                transition(State.HALF_OPEN);
+                return phase.generation();
+            }
+            return phase.state() == State.CLOSED ? phase.generation() : REJECTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a call may be made now, its outcome recorded with {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        return acquire() != REJECTED;
+    }
+
+    public void onSuccess(long permit) {
+        record(false, permit);
+    }
+
+    public void onFailure(long permit) {
+        record(true, permit);
+    }
+
+    /**
+     * Records a success for a call permitted in the current generation.
+     */
+    public void onSuccess() {
+        record(false, phase.generation());
+    }
+
+    /**
+     * Records a failure for a call permitted in the current generation.
+     */
+    public void onFailure() {
+        record(true, phase.generation());
+    }
+
+    private void record(boolean failure, long permit) {
+        lock.lock();
+        try {
+            Phase current = phase;
+            // permitted before the last transition: says nothing about the current state, nor about the probe
+            if (permit != current.generation())
+                return;
+            switch (current.state()) {
+                case CLOSED -> {
+                    if (recorded == windowSize && failed[next])
+                        failures--;
+                    failed[next] = failure;
+                    next = (next + 1) % windowSize;
+                    recorded = Math.min(recorded + 1, windowSize);
+                    if (failure)
+                        failures++;
+                    if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded)
+                        open();
+                }
+                case HALF_OPEN -> {
+                    if (failure) {
+                        open();
+                    } else {
+                        reset();
+                        transition(State.CLOSED);
+                    }
+                }
+                // an open breaker permits no call
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        openUntil = nanoClock.getAsLong() + openDuration;
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State to) {
+        State from = phase.state();
+        phase = new Phase(to, phase.generation() + 1);
+        listener.onTransition(from, to);
+    }
+}
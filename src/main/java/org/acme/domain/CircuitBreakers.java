@@ -0,0 +1,58 @@
+package org.acme.domain;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link CircuitBreaker} per payment processor. State transitions are logged and counted in the
+ * {@code payment.processor.breaker.transitions} metric, tagged by processor and by the state left and entered.
+ */
+@ApplicationScoped
+public class CircuitBreakers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakers.class);
+
+    private static final AttributeKey<String> PROCESSOR = AttributeKey.stringKey("processor");
+    private static final AttributeKey<String> FROM = AttributeKey.stringKey("from");
+    private static final AttributeKey<String> TO = AttributeKey.stringKey("to");
+
+    private final Map<RemotePaymentName, CircuitBreaker> breakers = new EnumMap<>(RemotePaymentName.class);
+
+    @Inject
+    public CircuitBreakers(OpenTelemetry openTelemetry,
+                           @ConfigProperty(name = "breaker.window-size", defaultValue = "20")
+                           int windowSize,
+                           @ConfigProperty(name = "breaker.minimum-calls", defaultValue = "10")
+                           int minimumCalls,
+                           @ConfigProperty(name = "breaker.failure-rate-threshold", defaultValue = "0.5")
+                           double failureRateThreshold,
+                           @ConfigProperty(name = "breaker.open-duration", defaultValue = "1s")
+                           Duration openDuration) {
+        LongCounter transitions = openTelemetry.getMeter(CircuitBreakers.class.getName())
+                .counterBuilder("payment.processor.breaker.transitions")
+                .setDescription("Payment processor circuit breaker state transitions")
+                .build();
+        for (RemotePaymentName processor : RemotePaymentName.values()) {
+            breakers.put(processor, new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration.toNanos(),
+                    (from, to) -> {
+                        LOGGER.info("Circuit breaker of the {} processor: {} -> {}", processor.value(), from, to);
+                        transitions.add(1, Attributes.of(PROCESSOR, processor.value(), FROM, from.name(), TO, to.name()));
+                    }));
+        }
+    }
+
+    public CircuitBreaker get(RemotePaymentName processor) {
+        return breakers.get(processor);
+    }
+}
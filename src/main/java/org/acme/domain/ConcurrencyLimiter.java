@@ -0,0 +1,105 @@
+package org.acme.domain;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * AIMD limit on the calls in flight to one processor. A successful call whose latency stays within
+ * {@code latencyTolerance} times the recent average (an exponentially weighted moving average, so a processor that
+ * is uniformly slow does not count as congested) raises the limit by {@code 1 / limit}, about one per round trip;
+ * a failed or slower call multiplies it by {@code backoffRatio}. Callers over the limit wait for a free slot.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private double averageLatency;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        if (latencyTolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1)
+            throw new IllegalArgumentException("Latency tolerance must be >= 1 and backoff ratio in (0, 1)");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    public <T> T call(Supplier<T> call, Predicate<T> isFailure) {
+        acquire();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = isFailure.test(result);
+            return result;
+        } finally {
+            release(System.nanoTime() - start, failed);
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit)
+                slotFreed.await();
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            if (failed || (averageLatency > 0 && latencyNanos > averageLatency * latencyTolerance)) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (saturated) {
+                // only grow a limit that is actually in use
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if (!failed)
+                averageLatency = averageLatency == 0 ? latencyNanos : averageLatency + LATENCY_SMOOTHING * (latencyNanos - averageLatency);
+            for (int free = (int) limit - inFlight; free > 0; free--)
+                slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.acme.domain;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link ConcurrencyLimiter} per payment processor. The limit never exceeds what the workers can have in flight,
+ * {@code worker.size * batch.size}.
+ */
+@ApplicationScoped
+public class ConcurrencyLimiters {
+
+    private final Map<RemotePaymentName, ConcurrencyLimiter> limiters = new EnumMap<>(RemotePaymentName.class);
+
+    @Inject
+    public ConcurrencyLimiters(@ConfigProperty(name = "worker.size", defaultValue = "10")
+                               int workers,
+                               @ConfigProperty(name = "batch.size", defaultValue = "1")
+                               int batchSize,
+                               @ConfigProperty(name = "limiter.initial-limit", defaultValue = "10")
+                               int initialLimit,
+                               @ConfigProperty(name = "limiter.min-limit", defaultValue = "1")
+                               int minLimit,
+                               @ConfigProperty(name = "limiter.latency-tolerance", defaultValue = "2.0")
+                               double latencyTolerance,
+                               @ConfigProperty(name = "limiter.backoff-ratio", defaultValue = "0.9")
+                               double backoffRatio) {
+        int maxLimit = Math.max(minLimit, workers * batchSize);
+        for (RemotePaymentName processor : RemotePaymentName.values()) {
+            limiters.put(processor, new ConcurrencyLimiter(
+                    Math.clamp(initialLimit, minLimit, maxLimit), minLimit, maxLimit, latencyTolerance, backoffRatio));
+        }
+    }
+
+    public ConcurrencyLimiter get(RemotePaymentName processor) {
+        return limiters.get(processor);
+    }
+}
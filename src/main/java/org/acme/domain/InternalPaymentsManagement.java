@@ -26,6 +26,12 @@ public interface InternalPaymentsManagement {
     @Consumes("application/json")
     void purgeInternalPayments();
 
+    @Path("/internal/processors-health")
+    @POST
+    @Produces("application/json")
+    @Consumes("application/json")
+    void updateProcessorsHealth(ProcessorsHealth processorsHealth);
+
     @Path("/q/health/ready")
     @GET
     @Produces("application/json")
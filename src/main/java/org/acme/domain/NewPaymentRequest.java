@@ -5,11 +5,31 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
 import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * {@code requestedAt} is when the request was received, sent to the processor on every attempt so one that already
+ * took the payment holds the same; a request without it is sent with the time of each attempt.
+ */
 @RegisterForReflection
-public record NewPaymentRequest(String correlationId, BigDecimal amount) {
+public record NewPaymentRequest(String correlationId, BigDecimal amount, int attempt, Instant requestedAt) implements PaymentIntake {
+
+    public NewPaymentRequest(String correlationId, BigDecimal amount) {
+        this(correlationId, amount, 0);
+    }
+
+    public NewPaymentRequest(String correlationId, BigDecimal amount, int attempt) {
+        this(correlationId, amount, attempt, null);
+    }
+
+    public NewPaymentRequest nextAttempt() {
+        return new NewPaymentRequest(correlationId, amount, attempt + 1, requestedAt);
+    }
+
+    public NewPaymentRequest withRequestedAt(Instant requestedAt) {
+        return new NewPaymentRequest(correlationId, amount, attempt, requestedAt);
+    }
 
     public RemotePaymentRequest toNewPayment() {
-        return new RemotePaymentRequest(correlationId, amount, Instant.now());
+        return new RemotePaymentRequest(correlationId, amount, requestedAt);
     }
 
-}
\ No newline at end of file
+}
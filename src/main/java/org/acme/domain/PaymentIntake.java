@@ -0,0 +1,8 @@
+package org.acme.domain;
+
+/**
+ * What the intake {@link PaymentQueue} holds: a parsed {@link NewPaymentRequest}, or the {@link RawPaymentRequest}
+ * body of a {@code POST /payments} that the workers still have to decode.
+ */
+public sealed interface PaymentIntake permits NewPaymentRequest, RawPaymentRequest {
+}
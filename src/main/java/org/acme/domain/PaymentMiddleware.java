@@ -3,11 +3,12 @@ package org.acme.domain;
 import io.quarkus.runtime.Startup;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import jakarta.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.Optional;
 
 import static java.util.Optional.ofNullable;
 
@@ -20,7 +21,7 @@ public class PaymentMiddleware {
 
     @Inject
     public PaymentMiddleware(
-            @RestClient
+            @Named("peer")
             InternalPaymentsManagement internalPaymentsManagement) {
         this.internalPaymentsManagement = internalPaymentsManagement;
     }
@@ -54,18 +55,29 @@ public class PaymentMiddleware {
         }
     }
 
-    public PaymentsSummary getSummary(Instant from, Instant to) {
+    public void shareProcessorsHealth(ProcessorsHealth processorsHealth) {
         try {
-            return internalPaymentsManagement.getSummary(
+            internalPaymentsManagement.updateProcessorsHealth(processorsHealth);
+        } catch (Exception e) {
+            LOGGER.warn("Error sharing processors health: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The peer's summary, or empty when it could not answer.
+     */
+    public Optional<PaymentsSummary> getSummary(Instant from, Instant to) {
+        try {
+            return Optional.of(internalPaymentsManagement.getSummary(
                     ofNullable(from)
                             .map(Object::toString)
                             .orElse(""),
                     ofNullable(to)
                             .map(Object::toString)
-                            .orElse(""));
+                            .orElse("")));
         } catch (Exception e) {
-            //LOGGER.warn("Error fetching payment summary: {}", e.getMessage(), e);
-            return PaymentsSummary.ZERO;
+            LOGGER.warn("Error fetching the peer payment summary: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 }
@@ -3,75 +3,137 @@ package org.acme.domain;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 
 @ApplicationScoped
 public class PaymentProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PaymentProcessor.class);
-    private final DefaultRemotePaymentProcessor defaultRemotePaymentProcessor;
-    private final FallbackRemotePaymentProcessor fallbackRemotePaymentProcessor;
+    private final RemotePaymentProcessor defaultRemotePaymentProcessor;
+    private final RemotePaymentProcessor fallbackRemotePaymentProcessor;
+    private final ProcessorHealthMonitor processorHealthMonitor;
+    private final CircuitBreakers circuitBreakers;
+    private final ConcurrencyLimiters concurrencyLimiters;
     private final int retries;
-    private final Map<String, AtomicInteger> errorCounter = new ConcurrentHashMap<>();
 
     @Inject
     public PaymentProcessor(
-            @RestClient
-            DefaultRemotePaymentProcessor defaultRemotePaymentProcessor,
-            @RestClient
-            FallbackRemotePaymentProcessor fallbackRemotePaymentProcessor,
+            RemotePaymentProcessors remotePaymentProcessors,
+            ProcessorHealthMonitor processorHealthMonitor,
+            CircuitBreakers circuitBreakers,
+            ConcurrencyLimiters concurrencyLimiters,
             @ConfigProperty(name = "retries.before.fallback", defaultValue = "16")
             int retries
     ) {
-        this.defaultRemotePaymentProcessor = defaultRemotePaymentProcessor;
-        this.fallbackRemotePaymentProcessor = fallbackRemotePaymentProcessor;
+        this.defaultRemotePaymentProcessor = remotePaymentProcessors.get(RemotePaymentName.DEFAULT);
+        this.fallbackRemotePaymentProcessor = remotePaymentProcessors.get(RemotePaymentName.FALLBACK);
+        this.processorHealthMonitor = processorHealthMonitor;
+        this.circuitBreakers = circuitBreakers;
+        this.concurrencyLimiters = concurrencyLimiters;
         this.retries = retries;
     }
 
     public Optional<Payment> sendPayment(NewPaymentRequest newPaymentRequest) {
+        return processorHealthMonitor.route()
+                .flatMap(this::acquire)
+                .flatMap(permit -> switch (permit.processor()) {
+                    case DEFAULT -> defaultSendPayment(newPaymentRequest, permit.generation());
+                    case FALLBACK -> fallbackSendPayment(newPaymentRequest, permit.generation());
+                });
+    }
+
+    /**
+     * The preferred processor if its circuit breaker lets the call through, else the other one if it is up and its
+     * breaker lets the call through, else empty: the payment is held without any HTTP round trip.
+     */
+    private Optional<Permit> acquire(RemotePaymentName preferred) {
+        RemotePaymentName alternative = preferred == RemotePaymentName.DEFAULT ? RemotePaymentName.FALLBACK : RemotePaymentName.DEFAULT;
+        return permit(preferred)
+                .or(() -> processorHealthMonitor.isUp(alternative) ? permit(alternative) : Optional.empty());
+    }
+
+    private Optional<Permit> permit(RemotePaymentName processor) {
+        long generation = circuitBreakers.get(processor).acquire();
+        return generation == CircuitBreaker.REJECTED ? Optional.empty() : Optional.of(new Permit(processor, generation));
+    }
+
+    /**
+     * Sends the payment to the default processor, {@code permit} being the one its circuit breaker granted.
+     */
+    public Optional<Payment> defaultSendPayment(NewPaymentRequest newPaymentRequest, long permit) {
+        CircuitBreaker breaker = circuitBreakers.get(RemotePaymentName.DEFAULT);
+        RemotePaymentRequest request = newPaymentRequest.toNewPayment();
+        RestResponse<RemotePaymentResponse> response;
         try {
-            RemotePaymentRequest request = newPaymentRequest.toNewPayment();
-            var response = defaultRemotePaymentProcessor.processPayment(request);
-            return switch (response.getStatus()) {
-                case 200 -> {
-                    errorCounter.remove(newPaymentRequest.correlationId());
-                    yield Optional.of(RemotePaymentName.DEFAULT.toPayment(request));
-                }
-                case 500 -> errorCounter
-                        .computeIfAbsent(newPaymentRequest.correlationId(), k -> new AtomicInteger())
-                        .incrementAndGet() > retries ? fallbackSendPayment(newPaymentRequest) : Optional.empty();
-                default -> Optional.empty();
-            };
+            response = concurrencyLimiters.get(RemotePaymentName.DEFAULT)
+                    .call(() -> defaultRemotePaymentProcessor.processPayment(request), PaymentProcessor::isFailure);
         } catch (RuntimeException e) {
-            errorCounter
-                    .computeIfAbsent(newPaymentRequest.correlationId(), k -> new AtomicInteger())
-                    .incrementAndGet();
+            breaker.onFailure(permit);
             return Optional.empty();
         }
+        record(breaker, permit, response);
+        return switch (response.getStatus()) {
+            case 200 -> Optional.of(RemotePaymentName.DEFAULT.toPayment(request));
+            // the attempt count says how many times this payment already failed
+            case 500 -> newPaymentRequest.attempt() + 1 > retries
+                    ? permit(RemotePaymentName.FALLBACK).flatMap(fallback -> fallbackSendPayment(newPaymentRequest, fallback.generation()))
+                    : Optional.empty();
+            default -> unprocessed(RemotePaymentName.DEFAULT, request, response);
+        };
     }
 
-    public Optional<Payment> fallbackSendPayment(NewPaymentRequest newPaymentRequest) {
+    /**
+     * Sends the payment to the fallback processor, {@code permit} being the one its circuit breaker granted.
+     */
+    public Optional<Payment> fallbackSendPayment(NewPaymentRequest newPaymentRequest, long permit) {
+        CircuitBreaker breaker = circuitBreakers.get(RemotePaymentName.FALLBACK);
         final RemotePaymentRequest request = newPaymentRequest.toNewPayment();
+        RestResponse<RemotePaymentResponse> response;
         try {
-            var response = fallbackRemotePaymentProcessor.processPayment(request);
-            return switch (response.getStatus()) {
-                case 200 -> {
-                    errorCounter.remove(newPaymentRequest.correlationId());
-                    yield Optional.of(RemotePaymentName.FALLBACK.toPayment(request));
-                }
-                default -> Optional.empty();
-            };
+            response = concurrencyLimiters.get(RemotePaymentName.FALLBACK)
+                    .call(() -> fallbackRemotePaymentProcessor.processPayment(request), PaymentProcessor::isFailure);
         } catch (RuntimeException e) {
+            breaker.onFailure(permit);
             return Optional.empty();
         }
+        record(breaker, permit, response);
+        return switch (response.getStatus()) {
+            case 200 -> Optional.of(RemotePaymentName.FALLBACK.toPayment(request));
+            default -> unprocessed(RemotePaymentName.FALLBACK, request, response);
+        };
+    }
+
+    /**
+     * Empty for an answer worth retrying; a client error other than 429 is final, as for a correlation id the processor
+     * already took on an earlier attempt or before a restart handed its request out again.
+     *
+     * @throws PaymentRejectedException if the processor refused the request for good
+     */
+    private static Optional<Payment> unprocessed(RemotePaymentName processor, RemotePaymentRequest request, RestResponse<?> response) {
+        int status = response.getStatus();
+        if (status >= 400 && status < 500 && status != 429)
+            throw new PaymentRejectedException(processor.toPayment(request), status);
+        return Optional.empty();
+    }
+
+    // any answer below 500 means the processor is up, even if it refused this payment
+    private static boolean isFailure(RestResponse<?> response) {
+        return response.getStatus() >= 500;
+    }
+
+    private static void record(CircuitBreaker breaker, long permit, RestResponse<?> response) {
+        if (isFailure(response))
+            breaker.onFailure(permit);
+        else
+            breaker.onSuccess(permit);
+    }
+
+    private record Permit(RemotePaymentName processor, long generation) {
     }
 
-}
\ No newline at end of file
+}
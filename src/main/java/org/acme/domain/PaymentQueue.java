@@ -0,0 +1,33 @@
+package org.acme.domain;
+
+import java.util.Collection;
+
+public interface PaymentQueue {
+
+    boolean offer(PaymentIntake paymentRequest);
+
+    PaymentIntake poll();
+
+    PaymentIntake take() throws InterruptedException;
+
+    int drainTo(Collection<? super PaymentIntake> target, int maxElements);
+
+    int remainingCapacity();
+
+    void clear();
+
+    /**
+     * Called once a request taken from this queue is done with: its payment is stored, it was dropped, or its retry
+     * is back on the queue. Only a durable queue keeps requests until then.
+     */
+    default void acknowledge(PaymentIntake paymentRequest) {
+    }
+
+    /**
+     * Whether a request taken from this queue was handed out again by a restart, so it may have been sent before.
+     */
+    default boolean redelivered(PaymentIntake paymentRequest) {
+        return false;
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.acme.domain;
+
+/**
+ * A payment processor refused the request for good, as it does a correlation id it already processed: sending it
+ * again can only be refused again. {@link #payment()} is the payment as that processor holds it in the latter case.
+ */
+public class PaymentRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Payment payment;
+    private final int status;
+
+    public PaymentRejectedException(Payment payment, int status) {
+        super("Payment " + payment.correlationId() + " rejected by the " + payment.processedBy().value()
+                + " processor with status " + status);
+        this.payment = payment;
+        this.status = status;
+    }
+
+    public Payment payment() {
+        return payment;
+    }
+
+    public int status() {
+        return status;
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.acme.domain;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface PaymentReplicationChannel {
+
+    /**
+     * Starts accepting the peer's batches, handing the payments of each one to the receiver exactly once.
+     */
+    void listen(Consumer<List<Payment>> receiver);
+
+    /**
+     * Sends the batch and blocks until the peer acknowledges it.
+     *
+     * @throws RuntimeException if it was not acknowledged; the same batch must then be sent again
+     */
+    void send(ReplicationBatch batch);
+
+}
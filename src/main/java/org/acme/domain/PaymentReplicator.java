@@ -0,0 +1,151 @@
+package org.acme.domain;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * With {@code peer.summary=replicate}, pushes every payment stored here to the peer instance, so each instance
+ * holds both stores and answers summaries without asking the other one. Payments accumulate in an outbox while the
+ * previous batch is in flight and leave in batches of up to {@code batchSize}; a batch is sent again until the peer
+ * acknowledges it, so a broken connection delays the peer's totals instead of losing payments.
+ * <p>
+ * A purge drops the outbox and the batch in flight, if any: once {@link #purge()} returns, no payment taken before it
+ * reaches the peer.
+ */
+@ApplicationScoped
+public class PaymentReplicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentReplicator.class);
+
+    private final PaymentReplicationChannel channel;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retryInterval;
+    private final long origin = ThreadLocalRandom.current().nextLong();
+    private final LinkedBlockingQueue<Payment> outbox = new LinkedBlockingQueue<>();
+    // held while a batch is sent, and by a purge
+    private final ReentrantLock sending = new ReentrantLock();
+    private volatile long generation;
+    // only touched by the replication thread
+    private long sequence;
+
+    @Inject
+    public PaymentReplicator(PaymentReplicationChannel channel,
+                             @ConfigProperty(name = "peer.summary", defaultValue = "query")
+                             String summary,
+                             @ConfigProperty(name = "peer.replication.batch-size", defaultValue = "1024")
+                             int batchSize,
+                             @ConfigProperty(name = "peer.replication.retry-interval", defaultValue = "100ms")
+                             Duration retryInterval) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Replication batch size must be at least 1");
+        this.channel = channel;
+        this.enabled = switch (summary) {
+            case "query" -> false;
+            case "replicate" -> true;
+            default -> throw new IllegalArgumentException("Unknown peer.summary: " + summary);
+        };
+        this.batchSize = batchSize;
+        this.retryInterval = retryInterval;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Listens for the peer's payments and starts pushing ours, if replication is enabled.
+     */
+    public void start(Consumer<List<Payment>> receiver) {
+        if (!enabled)
+            return;
+        LOGGER.info("Replicating payments to the peer in batches of up to {}", batchSize);
+        channel.listen(receiver);
+        Thread.startVirtualThread(this::replicate);
+    }
+
+    public void publish(Payment payment) {
+        if (enabled && payment != null)
+            outbox.add(payment);
+    }
+
+    public void publishAll(Collection<Payment> payments) {
+        if (!enabled)
+            return;
+        for (Payment payment : payments) {
+            if (payment != null)
+                outbox.add(payment);
+        }
+    }
+
+    public int pending() {
+        return outbox.size();
+    }
+
+    public void purge() {
+        sending.lock();
+        try {
+            outbox.clear();
+            generation++;
+        } finally {
+            sending.unlock();
+        }
+    }
+
+    private void replicate() {
+        List<Payment> payments = new ArrayList<>(batchSize);
+        while (true) {
+            payments.add(takePayment());
+            outbox.drainTo(payments, batchSize - 1);
+            sendUntilAcknowledged(new ReplicationBatch(origin, generation, ++sequence, List.copyOf(payments)));
+            payments.clear();
+        }
+    }
+
+    private void sendUntilAcknowledged(ReplicationBatch batch) {
+        while (true) {
+            sending.lock();
+            try {
+                if (batch.generation() != generation) {
+                    LOGGER.debug("Dropping {} payments replicated before a purge", batch.payments().size());
+                    return;
+                }
+                channel.send(batch);
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Error replicating {} payments to the peer, retrying: {}", batch.payments().size(), e.getMessage());
+            } finally {
+                sending.unlock();
+            }
+            sleep(retryInterval);
+        }
+    }
+
+    private Payment takePayment() {
+        try {
+            return outbox.take();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.acme.domain;
+
+public interface PaymentRequestDecoder {
+
+    /**
+     * @throws IllegalArgumentException if the body is not a valid payment request
+     */
+    NewPaymentRequest decode(byte[] body);
+
+}
@@ -1,25 +1,94 @@
 package org.acme.domain;
 
+import io.quarkus.runtime.Startup;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 @ApplicationScoped
 public class PaymentService {
 
     private final Payments payments;
     private final PaymentMiddleware paymentMiddleware;
+    private final SummaryCache summaryCache;
+    private final PaymentReplicator paymentReplicator;
 
     @Inject
-    public PaymentService(Payments payments, PaymentMiddleware paymentMiddleware) {
+    public PaymentService(Payments payments,
+                          PaymentMiddleware paymentMiddleware,
+                          PaymentReplicator paymentReplicator,
+                          @ConfigProperty(name = "summary.cache.size", defaultValue = "64")
+                          int summaryCacheSize,
+                          @ConfigProperty(name = "summary.cache.settle-window", defaultValue = "15s")
+                          Duration summaryCacheSettleWindow,
+                          @ConfigProperty(name = "summary.cache.open-range-ttl", defaultValue = "250ms")
+                          Duration summaryCacheOpenRangeTtl) {
+        if (payments.includesPeer() && paymentReplicator.enabled())
+            throw new IllegalStateException("The payments storage is shared with the peer, replicating to it would count its payments twice");
         this.payments = payments;
         this.paymentMiddleware = paymentMiddleware;
+        this.paymentReplicator = paymentReplicator;
+        this.summaryCache = new SummaryCache(summaryCacheSize, summaryCacheSettleWindow, summaryCacheOpenRangeTtl);
+    }
+
+    @Startup
+    public void start() {
+        paymentReplicator.start(this::addReplicated);
+    }
+
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        payments.add(payment);
+        // the store write must be visible before we look for cached ranges to invalidate,
+        // otherwise a summary loading concurrently could miss the payment and still be cached
+        VarHandle.fullFence();
+        summaryCache.invalidate(payment.requestedAt());
+        paymentReplicator.publish(payment);
+    }
+
+    public void addAll(List<Payment> payments) {
+        if (payments.isEmpty())
+            return;
+        store(payments);
+        paymentReplicator.publishAll(payments);
+    }
+
+    /**
+     * Stores payments processed by the peer, without pushing them back to it.
+     */
+    public void addReplicated(List<Payment> payments) {
+        if (!payments.isEmpty())
+            store(payments);
+    }
+
+    private void store(List<Payment> payments) {
+        this.payments.addAll(payments);
+        VarHandle.fullFence();
+        for (Payment payment : payments) {
+            if (payment != null)
+                summaryCache.invalidate(payment.requestedAt());
+        }
     }
 
     public PaymentsSummary getSummary(Instant from, Instant to) {
-        return getInternalSummary(from, to)
-                .add(paymentMiddleware.getSummary(from, to));
+        // the peer's payments are already in the local store, replicated or shared
+        if (paymentReplicator.enabled() || payments.includesPeer())
+            return summaryCache.get(from, to, (f, t) -> Optional.of(getInternalSummary(f, t))).orElseThrow();
+        // without the peer's share the local summary is still answered, but never cached; an empty result means the
+        // loader ran, so the local summary it computed is reused
+        PaymentsSummary[] local = new PaymentsSummary[1];
+        return summaryCache.get(from, to, (f, t) -> {
+                    local[0] = getInternalSummary(f, t);
+                    return paymentMiddleware.getSummary(f, t).map(local[0]::add);
+                })
+                .orElseGet(() -> local[0]);
     }
 
     public PaymentsSummary getInternalSummary(Instant from, Instant to) {
@@ -27,12 +96,17 @@ public class PaymentService {
     }
 
     public void purgePayments() {
-        purgeInternalPayments();
+        // both replicators drop what they took before the purge ahead of either store, so that no batch of earlier
+        // payments lands in a store already purged
+        paymentReplicator.purge();
         paymentMiddleware.purgePayments();
+        purgeInternalPayments();
     }
 
     public void purgeInternalPayments() {
+        paymentReplicator.purge();
         payments.purge();
+        summaryCache.clear();
     }
 
 }
@@ -8,7 +8,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 @ApplicationScoped
@@ -16,28 +21,40 @@ public class PaymentWorker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PaymentWorker.class);
 
-    private final Payments payments;
+    private final PaymentService paymentService;
     private final PaymentProcessor paymentProcessor;
-    private final LinkedBlockingQueue<NewPaymentRequest> queue;
+    private final PaymentQueue queue;
+    private final RetryScheduler retryScheduler;
+    private final PaymentRequestDecoder decoder;
     private final int workers;
+    private final int batchSize;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
 
     @Inject
-    public PaymentWorker(Payments payments,
+    public PaymentWorker(PaymentService paymentService,
                          PaymentProcessor paymentProcessor,
-                         @ConfigProperty(name = "worker.queue-buffer", defaultValue = "10000")
-                         int queueBuffer,
+                         PaymentQueue queue,
+                         RetryScheduler retryScheduler,
+                         PaymentRequestDecoder decoder,
                          @ConfigProperty(name = "worker.size", defaultValue = "10")
-                         int workers
+                         int workers,
+                         @ConfigProperty(name = "batch.size", defaultValue = "1")
+                         int batchSize
     ) {
-        this.payments = payments;
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        this.paymentService = paymentService;
         this.paymentProcessor = paymentProcessor;
-        this.queue = new LinkedBlockingQueue<>(queueBuffer);
+        this.queue = queue;
+        this.retryScheduler = retryScheduler;
+        this.decoder = decoder;
         this.workers = workers;
+        this.batchSize = batchSize;
     }
 
     @Startup
     public void start() {
-        LOGGER.info("Starting worker threads with buffer size: {} and worker count: {}", queue.remainingCapacity(), workers);
+        LOGGER.info("Starting worker threads with buffer size: {}, worker count: {} and batch size: {}", queue.remainingCapacity(), workers, batchSize);
         IntStream.range(0, workers).forEach(i ->
                 Thread.startVirtualThread(this::consumeQueue)
         );
@@ -45,13 +62,32 @@ public class PaymentWorker {
     }
 
     private void consumeQueue() {
+        List<PaymentIntake> intake = new ArrayList<>(batchSize);
+        List<NewPaymentRequest> batch = new ArrayList<>(batchSize);
+        List<PaymentIntake> origins = new ArrayList<>(batchSize);
         while (true) {
-            NewPaymentRequest paymentRequest = takeNewPaymentRequest();
-            processPayment(paymentRequest);
+            intake.add(takePaymentIntake());
+            this.queue.drainTo(intake, batchSize - 1);
+            for (PaymentIntake item : intake) {
+                decode(item).ifPresentOrElse(paymentRequest -> {
+                    batch.add(paymentRequest);
+                    origins.add(item);
+                }, () -> queue.acknowledge(item));
+            }
+            try {
+                if (!batch.isEmpty())
+                    processPayments(batch, origins);
+            } catch (RuntimeException e) {
+                // left unacknowledged, as a durable queue hands them out again after a restart
+                LOGGER.error("Could not process {} payment requests", batch.size(), e);
+            }
+            intake.clear();
+            batch.clear();
+            origins.clear();
         }
     }
 
-    private NewPaymentRequest takeNewPaymentRequest() {
+    private PaymentIntake takePaymentIntake() {
         try {
             return this.queue.take();
         } catch (InterruptedException e) {
@@ -59,17 +95,105 @@ public class PaymentWorker {
         }
     }
 
-    private void processPayment(NewPaymentRequest paymentRequest) {
-        paymentProcessor.sendPayment(paymentRequest)
-                .ifPresentOrElse(payments::add, () -> this.accept(paymentRequest));
+    /**
+     * Raw bodies were already answered with 201 by the event loop, so one that does not decode can only be dropped.
+     */
+    private Optional<NewPaymentRequest> decode(PaymentIntake item) {
+        return switch (item) {
+            case NewPaymentRequest paymentRequest -> Optional.of(paymentRequest);
+            case RawPaymentRequest raw -> {
+                try {
+                    yield Optional.of(decoder.decode(raw.body()).withRequestedAt(raw.requestedAt()));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Dropping malformed payment request: {}", e.getMessage());
+                    yield Optional.empty();
+                }
+            }
+        };
     }
 
-    public boolean accept(NewPaymentRequest paymentRequest) {
+    /**
+     * Each request is acknowledged to the queue, through its {@code origins} item, once its payment is stored or once
+     * the processor rejected it for good. A request sent before, by a failed attempt or before a restart, may have been
+     * taken without an answer saying so: refused then, its payment is stored as the processor holds it.
+     */
+    private void processPayments(List<NewPaymentRequest> batch, List<PaymentIntake> origins) {
+        if (batch.size() == 1) {
+            NewPaymentRequest paymentRequest = batch.getFirst();
+            PaymentIntake origin = origins.getFirst();
+            try {
+                paymentProcessor.sendPayment(paymentRequest)
+                        .ifPresentOrElse(payment -> {
+                            paymentService.add(payment);
+                            queue.acknowledge(origin);
+                        }, () -> retryScheduler.schedule(paymentRequest, origin));
+            } catch (PaymentRejectedException e) {
+                if (sentBefore(paymentRequest, origin)) {
+                    paymentService.add(e.payment());
+                    queue.acknowledge(origin);
+                } else
+                    drop(origin, e);
+            }
+            return;
+        }
+        List<Future<Optional<Payment>>> results = new ArrayList<>(batch.size());
+        for (NewPaymentRequest paymentRequest : batch) {
+            results.add(dispatcher.submit(() -> paymentProcessor.sendPayment(paymentRequest)));
+        }
+        List<Payment> processed = new ArrayList<>(batch.size());
+        List<PaymentIntake> stored = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            NewPaymentRequest paymentRequest = batch.get(i);
+            PaymentIntake origin = origins.get(i);
+            try {
+                awaitPayment(results.get(i))
+                        .ifPresentOrElse(payment -> {
+                            processed.add(payment);
+                            stored.add(origin);
+                        }, () -> retryScheduler.schedule(paymentRequest, origin));
+            } catch (PaymentRejectedException e) {
+                if (sentBefore(paymentRequest, origin)) {
+                    processed.add(e.payment());
+                    stored.add(origin);
+                } else
+                    drop(origin, e);
+            }
+        }
+        paymentService.addAll(processed);
+        stored.forEach(queue::acknowledge);
+    }
+
+    private static Optional<Payment> awaitPayment(Future<Optional<Payment>> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PaymentRejectedException rejected)
+                throw rejected;
+            LOGGER.warn("Payment dispatch failed", e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    // without the requestedAt of the earlier sends, the payment the processor holds is not known
+    private boolean sentBefore(NewPaymentRequest paymentRequest, PaymentIntake origin) {
+        return paymentRequest.requestedAt() != null && (paymentRequest.attempt() > 0 || queue.redelivered(origin));
+    }
+
+    private void drop(PaymentIntake origin, PaymentRejectedException rejection) {
+        LOGGER.warn("Dropping payment request: {}", rejection.getMessage());
+        queue.acknowledge(origin);
+    }
+
+    public boolean accept(PaymentIntake paymentRequest) {
         return this.queue.offer(paymentRequest);
     }
 
     public void purge() {
         this.queue.clear();
+        this.retryScheduler.purge();
     }
 
 }
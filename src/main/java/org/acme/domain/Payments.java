@@ -1,13 +1,25 @@
 package org.acme.domain;
 
 import java.time.Instant;
+import java.util.Collection;
 
 public interface Payments {
 
     void add(Payment payment);
 
+    default void addAll(Collection<Payment> payments) {
+        payments.forEach(this::add);
+    }
+
     void purge();
 
+    /**
+     * Whether {@link #getSummary} already covers the payments stored by the peer instance.
+     */
+    default boolean includesPeer() {
+        return false;
+    }
+
     PaymentsSummary getSummary(Instant from, Instant to);
 
 }
@@ -0,0 +1,104 @@
+package org.acme.domain;
+
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps the last known {@link ServiceHealth} of both processors. The {@code service-health} endpoint only allows one
+ * call every 5 seconds per processor, shared by all callers, so only the instance with {@code health.poller.enabled}
+ * polls it and pushes every update to its peer through the internal API.
+ */
+@ApplicationScoped
+public class ProcessorHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessorHealthMonitor.class);
+
+    private final RemotePaymentProcessor defaultRemotePaymentProcessor;
+    private final RemotePaymentProcessor fallbackRemotePaymentProcessor;
+    private final PaymentMiddleware paymentMiddleware;
+    private final boolean pollerEnabled;
+    private final Duration interval;
+    private final int slowResponseTime;
+    private volatile ProcessorsHealth processorsHealth = ProcessorsHealth.UNKNOWN;
+
+    @Inject
+    public ProcessorHealthMonitor(
+            RemotePaymentProcessors remotePaymentProcessors,
+            PaymentMiddleware paymentMiddleware,
+            @ConfigProperty(name = "health.poller.enabled", defaultValue = "true")
+            boolean pollerEnabled,
+            @ConfigProperty(name = "default-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration defaultInterval,
+            @ConfigProperty(name = "fallback-payment-processor.healthcheck.interval", defaultValue = "5s")
+            Duration fallbackInterval,
+            @ConfigProperty(name = "routing.slow-response-time", defaultValue = "1000")
+            int slowResponseTime) {
+        this.defaultRemotePaymentProcessor = remotePaymentProcessors.get(RemotePaymentName.DEFAULT);
+        this.fallbackRemotePaymentProcessor = remotePaymentProcessors.get(RemotePaymentName.FALLBACK);
+        this.paymentMiddleware = paymentMiddleware;
+        this.pollerEnabled = pollerEnabled;
+        this.interval = defaultInterval.compareTo(fallbackInterval) >= 0 ? defaultInterval : fallbackInterval;
+        this.slowResponseTime = slowResponseTime;
+    }
+
+    @Startup
+    public void start() {
+        if (!pollerEnabled) {
+            LOGGER.info("Processors health poller disabled, waiting for updates from the peer instance.");
+            return;
+        }
+        LOGGER.info("Polling processors health every {}", interval);
+        Thread.startVirtualThread(this::poll);
+    }
+
+    public Optional<RemotePaymentName> route() {
+        return processorsHealth.route(slowResponseTime);
+    }
+
+    public boolean isUp(RemotePaymentName processor) {
+        return !processorsHealth.of(processor).failing();
+    }
+
+    public ProcessorsHealth current() {
+        return processorsHealth;
+    }
+
+    public void update(ProcessorsHealth processorsHealth) {
+        this.processorsHealth = processorsHealth;
+    }
+
+    private void poll() {
+        while (true) {
+            ProcessorsHealth polled = processorsHealth
+                    .with(RemotePaymentName.DEFAULT, check(defaultRemotePaymentProcessor, processorsHealth.defaultHealth()))
+                    .with(RemotePaymentName.FALLBACK, check(fallbackRemotePaymentProcessor, processorsHealth.fallbackHealth()));
+            if (!polled.equals(processorsHealth))
+                LOGGER.info("Processors health changed: {}", polled);
+            update(polled);
+            paymentMiddleware.shareProcessorsHealth(polled);
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static ServiceHealth check(RemotePaymentProcessor remotePaymentProcessor, ServiceHealth previous) {
+        try {
+            var response = remotePaymentProcessor.serviceHealth();
+            // 429 means the shared rate limit was hit: keep what we knew
+            return response.getStatus() == 200 ? response.getEntity() : previous;
+        } catch (RuntimeException e) {
+            return ServiceHealth.UNREACHABLE;
+        }
+    }
+}
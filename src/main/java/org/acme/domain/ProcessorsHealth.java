@@ -0,0 +1,51 @@
+package org.acme.domain;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.json.bind.annotation.JsonbProperty;
+
+import java.util.Optional;
+
+@RegisterForReflection
+public record ProcessorsHealth(
+        @JsonbProperty("default") ServiceHealth defaultHealth,
+        @JsonbProperty("fallback") ServiceHealth fallbackHealth) {
+
+    public static final ProcessorsHealth UNKNOWN = new ProcessorsHealth(ServiceHealth.UNKNOWN, ServiceHealth.UNKNOWN);
+
+    public ProcessorsHealth {
+        defaultHealth = Optional.ofNullable(defaultHealth).orElse(ServiceHealth.UNKNOWN);
+        fallbackHealth = Optional.ofNullable(fallbackHealth).orElse(ServiceHealth.UNKNOWN);
+    }
+
+    public ServiceHealth of(RemotePaymentName processor) {
+        return switch (processor) {
+            case DEFAULT -> defaultHealth;
+            case FALLBACK -> fallbackHealth;
+        };
+    }
+
+    public ProcessorsHealth with(RemotePaymentName processor, ServiceHealth health) {
+        return switch (processor) {
+            case DEFAULT -> new ProcessorsHealth(health, fallbackHealth);
+            case FALLBACK -> new ProcessorsHealth(defaultHealth, health);
+        };
+    }
+
+    /**
+     * The processor a payment should be sent to, or empty when both are failing and the payment should be held.
+     * The cheaper default processor is preferred unless it is failing, or slower than {@code slowResponseTime}
+     * while the fallback is up and faster.
+     */
+    public Optional<RemotePaymentName> route(int slowResponseTime) {
+        if (!defaultHealth.failing()) {
+            boolean defaultIsSlow = defaultHealth.minResponseTime() > slowResponseTime;
+            if (defaultIsSlow && !fallbackHealth.failing() && fallbackHealth.minResponseTime() < defaultHealth.minResponseTime())
+                return Optional.of(RemotePaymentName.FALLBACK);
+            return Optional.of(RemotePaymentName.DEFAULT);
+        }
+        if (!fallbackHealth.failing())
+            return Optional.of(RemotePaymentName.FALLBACK);
+        return Optional.empty();
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.acme.domain;
+
+import java.time.Instant;
+
+/**
+ * The undecoded JSON body of a payment request, queued as received at {@code requestedAt}.
+ */
+public record RawPaymentRequest(byte[] body, Instant requestedAt) implements PaymentIntake {
+
+    public RawPaymentRequest(byte[] body) {
+        this(body, null);
+    }
+
+}
@@ -1,6 +1,7 @@
 package org.acme.domain;
 
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -15,4 +16,9 @@ public interface RemotePaymentProcessor {
     @Produces(MediaType.APPLICATION_JSON)
     RestResponse<RemotePaymentResponse> processPayment(RemotePaymentRequest request);
 
+    @GET
+    @Path("/service-health")
+    @Produces(MediaType.APPLICATION_JSON)
+    RestResponse<ServiceHealth> serviceHealth();
+
 }
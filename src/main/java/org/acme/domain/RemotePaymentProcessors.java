@@ -0,0 +1,8 @@
+package org.acme.domain;
+
+@FunctionalInterface
+public interface RemotePaymentProcessors {
+
+    RemotePaymentProcessor get(RemotePaymentName processor);
+
+}
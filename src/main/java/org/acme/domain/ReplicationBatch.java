@@ -0,0 +1,12 @@
+package org.acme.domain;
+
+import java.util.List;
+
+/**
+ * Payments pushed to the peer in one message. {@code origin} identifies the sending process and {@code sequence}
+ * numbers its batches from 1, so a batch sent again after a lost acknowledgement is applied only once.
+ * {@code generation} counts the purges of the sender before its payments were taken from the outbox: a batch of an
+ * earlier generation than one already applied is stale.
+ */
+public record ReplicationBatch(long origin, long generation, long sequence, List<Payment> payments) {
+}
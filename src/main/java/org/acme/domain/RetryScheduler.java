@@ -0,0 +1,112 @@
+package org.acme.domain;
+
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds failed payment requests until their retry deadline and only then puts them back on the {@link PaymentQueue},
+ * so a processor outage does not turn the workers into a loop of failing calls. The n-th retry waits for an
+ * exponential backoff of {@code initialBackoff * 2^(n-1)}, capped at {@code maxBackoff}, with equal jitter: a random
+ * delay between half and all of it.
+ */
+@ApplicationScoped
+public class RetryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final PaymentQueue queue;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final DelayQueue<Retry> retries = new DelayQueue<>();
+
+    @Inject
+    public RetryScheduler(PaymentQueue queue,
+                          @ConfigProperty(name = "retry.initial-backoff", defaultValue = "10ms")
+                          Duration initialBackoff,
+                          @ConfigProperty(name = "retry.max-backoff", defaultValue = "1s")
+                          Duration maxBackoff) {
+        if (initialBackoff.isNegative() || initialBackoff.isZero() || maxBackoff.compareTo(initialBackoff) < 0)
+            throw new IllegalArgumentException("Retry backoff must be positive and not exceed the max backoff");
+        this.queue = queue;
+        this.initialBackoff = initialBackoff.toNanos();
+        this.maxBackoff = maxBackoff.toNanos();
+    }
+
+    @Startup
+    public void start() {
+        LOGGER.info("Starting retry scheduler with backoff from {}ms up to {}ms",
+                TimeUnit.NANOSECONDS.toMillis(initialBackoff), TimeUnit.NANOSECONDS.toMillis(maxBackoff));
+        Thread.startVirtualThread(this::requeueDueRetries);
+    }
+
+    public void schedule(NewPaymentRequest paymentRequest) {
+        schedule(paymentRequest, paymentRequest);
+    }
+
+    /**
+     * Like {@link #schedule(NewPaymentRequest)}, acknowledging {@code origin}, the item taken from the queue, only once
+     * the retry is back on the queue.
+     */
+    public void schedule(NewPaymentRequest paymentRequest, PaymentIntake origin) {
+        NewPaymentRequest retry = paymentRequest.nextAttempt();
+        retries.add(new Retry(retry, origin, System.nanoTime() + backoff(retry.attempt())));
+    }
+
+    public int pending() {
+        return retries.size();
+    }
+
+    public void purge() {
+        retries.clear();
+    }
+
+    long backoff(int attempt) {
+        int doublings = Math.max(0, attempt - 1);
+        long ceiling = doublings >= Long.numberOfLeadingZeros(initialBackoff) - 1
+                ? maxBackoff
+                : Math.min(maxBackoff, initialBackoff << doublings);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    private void requeueDueRetries() {
+        while (true) {
+            Retry retry = takeDueRetry();
+            if (queue.offer(retry.paymentRequest()))
+                queue.acknowledge(retry.origin());
+            else
+                retries.add(new Retry(retry.paymentRequest(), retry.origin(), System.nanoTime() + maxBackoff));
+        }
+    }
+
+    private Retry takeDueRetry() {
+        try {
+            return retries.take();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private record Retry(NewPaymentRequest paymentRequest, PaymentIntake origin, long deadline) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((Retry) other).deadline);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.acme.domain;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public record ServiceHealth(boolean failing, int minResponseTime) {
+
+    public static final ServiceHealth UNKNOWN = new ServiceHealth(false, 0);
+
+    public static final ServiceHealth UNREACHABLE = new ServiceHealth(true, 0);
+
+}
@@ -0,0 +1,151 @@
+package org.acme.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded LRU cache of {@link PaymentsSummary} results keyed by their {@code [from, to]} range.
+ * <p>
+ * An entry is dropped when a payment requested inside its range is added, and everything is dropped on purge.
+ * Peer instances store payments this cache never hears about, so a range that still reaches into the last
+ * {@code settleWindow} (payments stamped in it may still be in flight) is only trusted for {@code openRangeTtl};
+ * older ranges stay cached until invalidated or evicted. The settle window must exceed the timeouts of the calls
+ * that store payments, or a late one could still land in a range already cached for good. A load that comes back
+ * empty, because the peer could not answer, is not cached.
+ */
+final class SummaryCache {
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final int maxSize;
+    private final Duration settleWindow;
+    private final long openRangeTtlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Range, Entry> entries;
+
+    /**
+     * Lock-free view of the cached (and pending) entries, so adds only take the lock when they hit a range.
+     */
+    private volatile Entry[] snapshot = EMPTY;
+
+    SummaryCache(int maxSize, Duration settleWindow, Duration openRangeTtl) {
+        this.maxSize = maxSize;
+        this.settleWindow = settleWindow;
+        this.openRangeTtlNanos = openRangeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Range, Entry> eldest) {
+                return size() > SummaryCache.this.maxSize;
+            }
+        };
+    }
+
+    Optional<PaymentsSummary> get(Instant from, Instant to, BiFunction<Instant, Instant, Optional<PaymentsSummary>> loader) {
+        if (maxSize <= 0)
+            return loader.apply(from, to);
+
+        Range range = new Range(from, to);
+        Entry pending = new Entry(range);
+        lock.lock();
+        try {
+            Entry cached = entries.get(range);
+            if (cached != null && cached.isFresh(System.nanoTime()))
+                return Optional.of(cached.summary);
+            entries.put(range, pending);
+            publish();
+        } finally {
+            lock.unlock();
+        }
+
+        Instant computedAt = Instant.now();
+        Optional<PaymentsSummary> summary = loader.apply(from, to);
+
+        lock.lock();
+        try {
+            // a concurrent add, purge or newer load for the same range replaces or removes the pending entry
+            if (entries.get(range) != pending)
+                return summary;
+            if (summary.isEmpty()) {
+                entries.remove(range);
+                publish();
+            } else {
+                pending.complete(summary.get(), range.isSettled(computedAt.minus(settleWindow)) ? Long.MAX_VALUE : System.nanoTime() + openRangeTtlNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return summary;
+    }
+
+    void invalidate(Instant requestedAt) {
+        if (requestedAt == null)
+            return;
+        Entry[] current = snapshot;
+        for (Entry entry : current) {
+            if (entry.range.contains(requestedAt)) {
+                removeContaining(requestedAt);
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeContaining(Instant requestedAt) {
+        lock.lock();
+        try {
+            if (entries.values().removeIf(entry -> entry.range.contains(requestedAt)))
+                publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        snapshot = entries.isEmpty() ? EMPTY : entries.values().toArray(EMPTY);
+    }
+
+    private record Range(Instant from, Instant to) {
+
+        boolean contains(Instant instant) {
+            return (from == null || !instant.isBefore(from)) && (to == null || !instant.isAfter(to));
+        }
+
+        boolean isSettled(Instant settledBefore) {
+            return to != null && to.isBefore(settledBefore);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Range range;
+        private volatile PaymentsSummary summary;
+        private volatile long expiresAt;
+
+        Entry(Range range) {
+            this.range = range;
+        }
+
+        void complete(PaymentsSummary summary, long expiresAt) {
+            this.expiresAt = expiresAt;
+            this.summary = summary;
+        }
+
+        boolean isFresh(long now) {
+            return summary != null && (expiresAt == Long.MAX_VALUE || now - expiresAt < 0);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Payments} that appends each payment into a per-time-bucket {@link PaymentColumns} keyed by
+ * {@code requestedAt}, and maintains a {@link PrefixSumIndex} over the same buckets.
+ * <p>
+ * A summary answers every bucket fully covered by {@code [from, to]} from the index, and only scans the payments of
+ * the (at most two) partially covered edge buckets.
+ */
+public class BucketedPayments implements Payments {
+
+    public static final Duration DEFAULT_BUCKET_WIDTH = Duration.ofSeconds(1);
+
+    private final long bucketWidth;
+
+    private volatile Store store = new Store();
+
+    public BucketedPayments(Duration bucketWidth) {
+        if (bucketWidth.isNegative() || bucketWidth.isZero())
+            throw new IllegalArgumentException("Bucket width must be positive");
+        this.bucketWidth = bucketWidth.toNanos();
+    }
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        long requestedAt = EpochNanos.of(payment.requestedAt());
+        long packedAmount = PackedAmount.pack(payment.amount());
+        int processor = payment.processedBy().ordinal();
+        long bucket = bucketOf(requestedAt);
+        Store current = this.store;
+        current.buckets
+                .computeIfAbsent(bucket, key -> new Bucket())
+                .append(requestedAt, packedAmount, processor);
+        current.index.add(bucket, processor, packedAmount);
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        if (fromNanos > toNanos)
+            return accumulator.toPaymentsSummary();
+
+        Store current = this.store;
+        long fromBucket = bucketOf(fromNanos);
+        long toBucket = bucketOf(toNanos);
+        long firstFullBucket = fromNanos == firstOf(fromBucket) ? fromBucket : fromBucket + 1;
+        long lastFullBucket = toNanos == lastOf(toBucket) ? toBucket : toBucket - 1;
+
+        if (firstFullBucket > lastFullBucket) {
+            scan(current, fromBucket, fromNanos, toNanos, accumulator);
+            if (toBucket != fromBucket)
+                scan(current, toBucket, fromNanos, toNanos, accumulator);
+        } else {
+            if (firstFullBucket != fromBucket)
+                scan(current, fromBucket, fromNanos, toNanos, accumulator);
+            current.index.summarize(firstFullBucket, lastFullBucket, accumulator);
+            if (lastFullBucket != toBucket)
+                scan(current, toBucket, fromNanos, toNanos, accumulator);
+        }
+        return accumulator.toPaymentsSummary();
+    }
+
+    @Override
+    public void purge() {
+        this.store = new Store();
+    }
+
+    private static void scan(Store store, long bucket, long from, long to, SummaryAccumulator accumulator) {
+        Bucket found = store.buckets.get(bucket);
+        if (found != null)
+            found.columns.summarize(from, to, accumulator);
+    }
+
+    private long bucketOf(long epochNanos) {
+        return Math.floorDiv(epochNanos, bucketWidth);
+    }
+
+    private long firstOf(long bucket) {
+        try {
+            return Math.multiplyExact(bucket, bucketWidth);
+        } catch (ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private long lastOf(long bucket) {
+        long first = firstOf(bucket);
+        return first > Long.MAX_VALUE - (bucketWidth - 1) ? Long.MAX_VALUE : first + (bucketWidth - 1);
+    }
+
+    /**
+     * Raw buckets and their index are swapped together, so a purge resets both at once.
+     */
+    private static final class Store {
+
+        private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+        private final PrefixSumIndex index = new PrefixSumIndex();
+    }
+
+    private static final class Bucket {
+
+        private final PaymentColumns columns = new PaymentColumns();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        void append(long requestedAt, long packedAmount, int processor) {
+            lock.lock();
+            try {
+                columns.append(requestedAt, packedAmount, processor);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+import org.acme.domain.RawPaymentRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link PaymentQueue} that appends every request to memory-mapped chunk files of {@code chunkBytes} before handing it
+ * to the workers, so the requests already answered with 201 but not processed yet survive a restart. Requests are
+ * handed out from memory; the file is only read back when the queue is created.
+ * <p>
+ * The consumer offset is the position of the oldest request not {@link #acknowledge acknowledged} yet. Once
+ * {@link #start() started}, every {@code syncInterval} a background thread forces the chunks written since the previous
+ * pass to the device, then the offset, and deletes the chunks before it (group commit): appends never wait for the
+ * device, so a crash of the host loses at most the requests of the last interval, while a crash of the process loses
+ * none. A restart hands out
+ * again every request from the offset on, including those acknowledged out of order after it: delivery is at least
+ * once, and such a request is {@link #redelivered redelivered}.
+ * <p>
+ * Each start appends to a new chunk after the existing ones.
+ */
+public class DurablePaymentQueue implements PaymentQueue, AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 24;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurablePaymentQueue.class);
+    private static final Pattern CHUNK_NAME = Pattern.compile("intake-(\\d{10})\\.queue");
+    private static final byte NEW_REQUEST = 1;
+    private static final byte RAW_REQUEST = 2;
+    // a new request whose correlation id is null, which PaymentsResource accepts: it has no payload
+    private static final byte NEW_REQUEST_WITHOUT_ID = 3;
+    // length of the rest of the record, written last, its type and the epoch nanos of requestedAt, or NOT_REQUESTED:
+    // a zero length ends the chunk
+    private static final int HEADER = Integer.BYTES + 1 + Long.BYTES;
+    private static final long NOT_REQUESTED = Long.MIN_VALUE;
+    // a new request's attempt and packed amount, before its correlation id
+    private static final int REQUEST_FIELDS = Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final int capacity;
+    private final int chunkBytes;
+    private final Duration syncInterval;
+    private final FileChannel offsetFile;
+    private final LinkedBlockingQueue<PaymentIntake> pending = new LinkedBlockingQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // under lock: requests are numbered in append order; the sequence of each request not acknowledged, and a ring of
+    // the position and acknowledgement of the sequences from the oldest not acknowledged one, head, to tail
+    private final Map<PaymentIntake, Object> sequences = new IdentityHashMap<>();
+    private final Set<PaymentIntake> recovered = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long[] ringPositions = new long[1024];
+    private boolean[] ringAcknowledged = new boolean[1024];
+    private long head;
+    private long tail;
+    // under lock: the chunk appended to, and the chunks written since the last sync
+    private long chunk;
+    private MappedByteBuffer buffer;
+    private int offset;
+    private final List<MappedByteBuffer> unsynced = new ArrayList<>();
+    private volatile long committed;
+    // only touched by the syncing thread
+    private long syncedOffset = -1L;
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private Thread syncing;
+
+    public DurablePaymentQueue(Path directory, int capacity, int chunkBytes, Duration syncInterval) {
+        if (chunkBytes < HEADER)
+            throw new IllegalArgumentException("Chunk bytes must be at least " + HEADER);
+        this.directory = directory;
+        this.capacity = capacity;
+        this.chunkBytes = chunkBytes;
+        this.syncInterval = syncInterval;
+        try {
+            Files.createDirectories(directory);
+            this.offsetFile = FileChannel.open(directory.resolve("intake.offset"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the intake queue " + directory, e);
+        }
+        long from = readOffset();
+        long[] chunks = chunkIndexes().sorted().toArray();
+        for (long index : chunks) {
+            if (index >= from / chunkBytes)
+                recover(index, from);
+        }
+        LOGGER.info("Recovered {} pending payment requests from the intake queue", pending.size());
+        // never before the offset, as when every chunk was consumed up to a full one and deleted
+        this.chunk = Math.max(chunks.length == 0 ? 0L : chunks[chunks.length - 1] + 1, from / chunkBytes);
+        this.buffer = map(chunk);
+        this.committed = oldest();
+    }
+
+    /**
+     * Starts the background sync, if its interval is not zero.
+     */
+    public void start() {
+        if (!syncInterval.isZero())
+            syncing = Thread.startVirtualThread(this::syncEveryInterval);
+    }
+
+    /**
+     * Stops the background sync, waiting for a pass under way, then syncs a last time and releases the offset file:
+     * the queue is not usable anymore.
+     */
+    @Override
+    public void close() {
+        closed.countDown();
+        try {
+            if (syncing != null)
+                syncing.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (offsetFile) {
+            sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the intake queue " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean offer(PaymentIntake paymentRequest) {
+        byte[] payload = payload(paymentRequest);
+        int length = HEADER + (paymentRequest instanceof NewPaymentRequest ? REQUEST_FIELDS : 0) + payload.length;
+        if (length > chunkBytes)
+            throw new IllegalArgumentException("Payment request of " + length + " bytes exceeds an intake queue chunk");
+        lock.lock();
+        try {
+            if (pending.size() >= capacity)
+                return false;
+            enqueue(paymentRequest, append(paymentRequest, payload, length));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PaymentIntake poll() {
+        return pending.poll();
+    }
+
+    @Override
+    public PaymentIntake take() throws InterruptedException {
+        return pending.take();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PaymentIntake> target, int maxElements) {
+        return pending.drainTo(target, maxElements);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - pending.size());
+    }
+
+    @Override
+    public void acknowledge(PaymentIntake paymentRequest) {
+        lock.lock();
+        try {
+            Long sequence = untrack(paymentRequest);
+            if (sequence == null)
+                return;
+            if (!sequences.containsKey(paymentRequest))
+                recovered.remove(paymentRequest);
+            int mask = ringAcknowledged.length - 1;
+            ringAcknowledged[sequence.intValue() & mask] = true;
+            while (head < tail && ringAcknowledged[(int) head & mask]) {
+                ringAcknowledged[(int) head & mask] = false;
+                head++;
+            }
+            committed = oldest();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean redelivered(PaymentIntake paymentRequest) {
+        lock.lock();
+        try {
+            return recovered.contains(paymentRequest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the pending requests, and counts those taken before as acknowledged.
+     */
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            pending.clear();
+            sequences.clear();
+            recovered.clear();
+            Arrays.fill(ringAcknowledged, false);
+            head = tail;
+            committed = end();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the chunks appended to since the previous call, then the consumer offset, to the device and deletes the
+     * chunks wholly before the offset. Not thread-safe: one thread syncs.
+     */
+    public void sync() {
+        List<MappedByteBuffer> written;
+        long commit;
+        lock.lock();
+        try {
+            written = List.copyOf(unsynced);
+            unsynced.clear();
+            commit = committed;
+        } finally {
+            lock.unlock();
+        }
+        for (MappedByteBuffer mapped : written)
+            mapped.force();
+        if (commit == syncedOffset)
+            return;
+        try {
+            offsetFile.write(ByteBuffer.allocate(Long.BYTES).putLong(0, commit), 0L);
+            offsetFile.force(false);
+            long bound = commit / chunkBytes;
+            for (long index : chunkIndexes().filter(index -> index < bound).toArray())
+                Files.deleteIfExists(chunkPath(index));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not commit the intake queue offset " + directory, e);
+        }
+        syncedOffset = commit;
+    }
+
+    private long append(PaymentIntake paymentRequest, byte[] payload, int length) {
+        if (offset + length > chunkBytes) {
+            chunk++;
+            buffer = map(chunk);
+            offset = 0;
+        }
+        if (unsynced.isEmpty() || unsynced.getLast() != buffer)
+            unsynced.add(buffer);
+        int at = offset + HEADER;
+        switch (paymentRequest) {
+            case NewPaymentRequest request -> {
+                buffer.put(offset + Integer.BYTES, request.correlationId() == null ? NEW_REQUEST_WITHOUT_ID : NEW_REQUEST);
+                buffer.putLong(offset + Integer.BYTES + 1, requestedAt(request.requestedAt()));
+                buffer.putInt(at, request.attempt());
+                buffer.putLong(at + Integer.BYTES, PackedAmount.pack(request.amount()));
+                at += REQUEST_FIELDS;
+            }
+            case RawPaymentRequest raw -> {
+                buffer.put(offset + Integer.BYTES, RAW_REQUEST);
+                buffer.putLong(offset + Integer.BYTES + 1, requestedAt(raw.requestedAt()));
+            }
+        }
+        buffer.put(at, payload);
+        buffer.putInt(offset, length - Integer.BYTES);
+        long position = chunk * chunkBytes + offset;
+        offset += length;
+        return position;
+    }
+
+    private long end() {
+        return chunk * chunkBytes + offset;
+    }
+
+    private long oldest() {
+        return head < tail ? ringPositions[(int) head & (ringPositions.length - 1)] : end();
+    }
+
+    private void enqueue(PaymentIntake paymentRequest, long position) {
+        if (tail - head == ringPositions.length)
+            grow();
+        ringPositions[(int) tail & (ringPositions.length - 1)] = position;
+        track(paymentRequest, tail++);
+        pending.offer(paymentRequest);
+    }
+
+    private void grow() {
+        long[] positions = new long[ringPositions.length * 2];
+        boolean[] acknowledged = new boolean[positions.length];
+        for (long sequence = head; sequence < tail; sequence++) {
+            positions[(int) sequence & (positions.length - 1)] = ringPositions[(int) sequence & (ringPositions.length - 1)];
+            acknowledged[(int) sequence & (positions.length - 1)] = ringAcknowledged[(int) sequence & (ringPositions.length - 1)];
+        }
+        ringPositions = positions;
+        ringAcknowledged = acknowledged;
+    }
+
+    // the same instance may be queued more than once: its sequences are then acknowledged oldest first
+    private void track(PaymentIntake paymentRequest, long sequence) {
+        Object previous = sequences.putIfAbsent(paymentRequest, sequence);
+        if (previous == null)
+            return;
+        if (previous instanceof ArrayDeque<?> queued) {
+            @SuppressWarnings("unchecked")
+            ArrayDeque<Long> all = (ArrayDeque<Long>) queued;
+            all.add(sequence);
+            return;
+        }
+        sequences.put(paymentRequest, new ArrayDeque<>(List.of((Long) previous, sequence)));
+    }
+
+    private Long untrack(PaymentIntake paymentRequest) {
+        Object tracked = sequences.get(paymentRequest);
+        if (!(tracked instanceof ArrayDeque<?> queued))
+            return (Long) sequences.remove(paymentRequest);
+        Long sequence = (Long) queued.poll();
+        if (queued.isEmpty())
+            sequences.remove(paymentRequest);
+        return sequence;
+    }
+
+    private static byte[] payload(PaymentIntake paymentRequest) {
+        return switch (paymentRequest) {
+            case NewPaymentRequest request -> request.correlationId() == null
+                    ? new byte[0]
+                    : request.correlationId().getBytes(StandardCharsets.UTF_8);
+            case RawPaymentRequest raw -> raw.body();
+        };
+    }
+
+    private static long requestedAt(Instant requestedAt) {
+        return requestedAt == null ? NOT_REQUESTED : EpochNanos.of(requestedAt);
+    }
+
+    private static Instant requestedAt(long epochNanos) {
+        return epochNanos == NOT_REQUESTED ? null : EpochNanos.toInstant(epochNanos);
+    }
+
+    private static PaymentIntake decode(ByteBuffer record) {
+        byte type = record.get();
+        Instant requestedAt = requestedAt(record.getLong());
+        if (type == RAW_REQUEST) {
+            byte[] body = new byte[record.remaining()];
+            record.get(body);
+            return new RawPaymentRequest(body, requestedAt);
+        }
+        if (type != NEW_REQUEST && type != NEW_REQUEST_WITHOUT_ID)
+            throw new IllegalStateException("Unknown intake queue record type " + type);
+        int attempt = record.getInt();
+        long amount = record.getLong();
+        byte[] correlationId = new byte[record.remaining()];
+        record.get(correlationId);
+        return new NewPaymentRequest(type == NEW_REQUEST ? new String(correlationId, StandardCharsets.UTF_8) : null,
+                PackedAmount.unpack(amount), attempt, requestedAt);
+    }
+
+    private void recover(long index, long from) {
+        try (FileChannel channel = FileChannel.open(chunkPath(index), StandardOpenOption.READ)) {
+            int size = (int) Math.min(chunkBytes, channel.size());
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int position = 0; position + HEADER <= size; ) {
+                int length = mapped.getInt(position);
+                // the end of the chunk, or a record whose length was not written before a crash
+                if (length <= 0 || length > size - position - Integer.BYTES)
+                    break;
+                long queued = index * chunkBytes + position;
+                if (queued >= from) {
+                    PaymentIntake paymentRequest = decode(mapped.slice(position + Integer.BYTES, length));
+                    recovered.add(paymentRequest);
+                    enqueue(paymentRequest, queued);
+                }
+                position += Integer.BYTES + length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover intake queue chunk " + index, e);
+        }
+    }
+
+    private long readOffset() {
+        try {
+            ByteBuffer offset = ByteBuffer.allocate(Long.BYTES);
+            if (offsetFile.read(offset, 0L) < Long.BYTES)
+                return 0L;
+            return offset.getLong(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the intake queue offset " + directory, e);
+        }
+    }
+
+    private void syncEveryInterval() {
+        try {
+            // waits on the latch rather than sleeping: an interrupt would close the offset file
+            while (!closed.await(syncInterval.toNanos(), TimeUnit.NANOSECONDS)) {
+                try {
+                    sync();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error syncing the intake queue: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MappedByteBuffer map(long index) {
+        try (FileChannel channel = FileChannel.open(chunkPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, chunkBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map intake queue chunk " + index, e);
+        }
+    }
+
+    private Path chunkPath(long index) {
+        return directory.resolve("intake-%010d.queue".formatted(index));
+    }
+
+    private LongStream chunkIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            long[] indexes = files.map(file -> CHUNK_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .toArray();
+            return Arrays.stream(indexes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the intake queue " + directory, e);
+        }
+    }
+}
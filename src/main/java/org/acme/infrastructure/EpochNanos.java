@@ -0,0 +1,35 @@
+package org.acme.infrastructure;
+
+import java.time.Instant;
+
+/**
+ * Converts {@link Instant} values to and from a primitive {@code long} of nanoseconds since the epoch,
+ * saturating at {@link Long#MIN_VALUE}/{@link Long#MAX_VALUE} outside the representable range (~1677 to ~2262).
+ */
+final class EpochNanos {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private EpochNanos() {
+    }
+
+    static long of(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    static long from(Instant from) {
+        return from == null ? Long.MIN_VALUE : of(from);
+    }
+
+    static long to(Instant to) {
+        return to == null ? Long.MAX_VALUE : of(to);
+    }
+
+    static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+}
@@ -1,77 +1,199 @@
 package org.acme.infrastructure;
 
-import jakarta.enterprise.context.ApplicationScoped;
 import org.acme.domain.Payment;
-import org.acme.domain.PaymentSummary;
 import org.acme.domain.Payments;
 import org.acme.domain.PaymentsSummary;
-import org.acme.domain.RemotePaymentName;
-import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.math.BigDecimal;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
-@ApplicationScoped
+/**
+ * {@link Payments} appended into fixed-size columnar chunks. Writers reserve a slot with one atomic increment and
+ * publish it through a per-slot commit marker; once full, a chunk is never modified again.
+ * <p>
+ * Summaries reduce the chunks directly, without copying them: sequentially on a single core, or as a fork/join
+ * reduction of per-chunk partial summaries when there are enough chunks to keep the available cores busy.
+ */
 public class InMemoryPayments implements Payments {
 
-    public static final int DEFAULT_PARALLEL_STREAM_THRESHOLD = 1_000_000;
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
 
-    private final ConcurrentLinkedQueue<Payment> payments = new ConcurrentLinkedQueue<>();
+    /**
+     * Smallest amount of work, in chunks, worth handing to a separate fork/join task.
+     */
+    static final int MIN_CHUNKS_PER_TASK = 16;
 
-    private final int parallelStreamThreshold;
+    private static final VarHandle PROCESSORS = MethodHandles.arrayElementVarHandle(byte[].class);
 
-    public InMemoryPayments(
-            @ConfigProperty(name = "payments.parallel.stream.threshold", defaultValue = "100_000")
-            int parallelStreamThreshold) {
-        this.parallelStreamThreshold = parallelStreamThreshold;
-    }
+    private final ForkJoinPool pool;
 
-    @Override
-    public PaymentsSummary getSummary(Instant from, Instant to) {
+    private volatile Log log = new Log();
 
-        Map<RemotePaymentName, PaymentSummary> summary = getStream()
-                .filter(Payment.createdOn(from, to))
-                .collect(Collectors.groupingBy(
-                        payment -> payment.processedBy(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                payments ->
-                                        new PaymentSummary(
-                                                Long.valueOf(payments.size()),
-                                                payments.stream().map(Payment::amount).reduce(BigDecimal.ZERO, BigDecimal::add)
-                                        )
-                        )
-                ));
-
-        return PaymentsSummary.of(summary);
+    public InMemoryPayments() {
+        this(ForkJoinPool.commonPool());
     }
 
-    private Stream<Payment> getStream() {
-        List<Payment> payments = snapshot();
-        if (payments.size() > parallelStreamThreshold)
-            return payments.stream().parallel();
-        return payments.stream();
+    public InMemoryPayments(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        Log current = this.log;
+        long reserved = current.cursor.get();
+        Chunk[] chunks = current.chunks;
+        int chunkCount = (int) Math.min(chunks.length, (reserved + CHUNK_MASK) >>> CHUNK_SHIFT);
+        int chunksPerTask = chunksPerTask(chunkCount);
+        SummaryTask task = new SummaryTask(chunks, reserved, 0, chunkCount, chunksPerTask, fromNanos, toNanos);
+        SummaryAccumulator accumulator = chunksPerTask >= chunkCount ? task.compute() : pool.invoke(task);
+        return accumulator.toPaymentsSummary();
     }
 
-    private List<Payment> snapshot() {
-        return new ArrayList<>(payments);
+    /**
+     * Splits the work into a few tasks per available core, but never into tasks smaller than
+     * {@link #MIN_CHUNKS_PER_TASK}; with a single core everything runs in the calling thread.
+     */
+    private int chunksPerTask(int chunkCount) {
+        int parallelism = pool.getParallelism();
+        if (parallelism <= 1)
+            return Math.max(chunkCount, 1);
+        return Math.max(MIN_CHUNKS_PER_TASK, Math.ceilDiv(chunkCount, parallelism * 4));
     }
 
     @Override
     public void add(Payment payment) {
         if (payment == null)
             return;
-        this.payments.offer(payment);
+        Log current = this.log;
+        write(current, current.cursor.getAndIncrement(), payment);
+    }
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+        List<Payment> batch = payments.stream().filter(Objects::nonNull).toList();
+        if (batch.isEmpty())
+            return;
+        Log current = this.log;
+        long slot = current.cursor.getAndAdd(batch.size());
+        for (Payment payment : batch)
+            write(current, slot++, payment);
+    }
+
+    private static void write(Log log, long slot, Payment payment) {
+        log.chunk((int) (slot >>> CHUNK_SHIFT)).write((int) (slot & CHUNK_MASK),
+                EpochNanos.of(payment.requestedAt()),
+                PackedAmount.pack(payment.amount()),
+                payment.processedBy().ordinal());
     }
 
     @Override
     public void purge() {
-        this.payments.clear();
+        this.log = new Log();
+    }
+
+    @SuppressWarnings("serial") // never serialized
+    private static final class SummaryTask extends RecursiveTask<SummaryAccumulator> {
+
+        private final Chunk[] chunks;
+        private final long reserved;
+        private final int fromChunk;
+        private final int toChunk;
+        private final int chunksPerTask;
+        private final long from;
+        private final long to;
+
+        SummaryTask(Chunk[] chunks, long reserved, int fromChunk, int toChunk, int chunksPerTask, long from, long to) {
+            this.chunks = chunks;
+            this.reserved = reserved;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.chunksPerTask = chunksPerTask;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SummaryAccumulator compute() {
+            if (toChunk - fromChunk <= chunksPerTask) {
+                SummaryAccumulator accumulator = new SummaryAccumulator();
+                for (int index = fromChunk; index < toChunk; index++) {
+                    Chunk chunk = chunks[index];
+                    if (chunk != null)
+                        chunk.summarize((int) Math.min(CHUNK_SIZE, reserved - ((long) index << CHUNK_SHIFT)), from, to, accumulator);
+                }
+                return accumulator;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            SummaryTask left = new SummaryTask(chunks, reserved, fromChunk, middle, chunksPerTask, from, to);
+            SummaryTask right = new SummaryTask(chunks, reserved, middle, toChunk, chunksPerTask, from, to);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    private static final class Log {
+
+        private final AtomicLong cursor = new AtomicLong();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Chunk[] chunks = new Chunk[0];
+
+        Chunk chunk(int index) {
+            Chunk[] current = chunks;
+            if (index < current.length && current[index] != null)
+                return current[index];
+            lock.lock();
+            try {
+                current = chunks;
+                if (index < current.length && current[index] != null)
+                    return current[index];
+                // copy on write, so readers only ever see fully published chunks
+                current = Arrays.copyOf(current, index < current.length ? current.length : Math.max(index + 1, current.length << 1));
+                current[index] = new Chunk();
+                chunks = current;
+                return current[index];
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Chunk {
+
+        private final long[] requestedAt = new long[CHUNK_SIZE];
+        private final long[] amounts = new long[CHUNK_SIZE];
+        /**
+         * Processor ordinal + 1 of each slot, written last; 0 means the slot is not committed yet.
+         */
+        private final byte[] processors = new byte[CHUNK_SIZE];
+
+        void write(int offset, long requestedAt, long packedAmount, int processor) {
+            this.requestedAt[offset] = requestedAt;
+            this.amounts[offset] = packedAmount;
+            PROCESSORS.setRelease(processors, offset, (byte) (processor + 1));
+        }
+
+        void summarize(int length, long from, long to, SummaryAccumulator accumulator) {
+            for (int i = 0; i < length; i++) {
+                int processor = (byte) PROCESSORS.getAcquire(processors, i) - 1;
+                if (processor < 0)
+                    continue;
+                long timestamp = requestedAt[i];
+                if (timestamp >= from && timestamp <= to)
+                    accumulator.add(processor, amounts[i]);
+            }
+        }
     }
 }
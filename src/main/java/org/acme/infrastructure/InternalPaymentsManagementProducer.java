@@ -0,0 +1,54 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.net.SocketAddress;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Named;
+import jakarta.json.bind.Jsonb;
+import org.acme.domain.InternalPaymentsManagement;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class InternalPaymentsManagementProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InternalPaymentsManagementProducer.class);
+
+    @Produces
+    @Named("peer")
+    @ApplicationScoped
+    public InternalPaymentsManagement internalPaymentsManagement(
+            @RestClient
+            InternalPaymentsManagement restClient,
+            Vertx vertx,
+            Jsonb jsonb,
+            @ConfigProperty(name = "peer.transport", defaultValue = "tcp")
+            String transport,
+            @ConfigProperty(name = "peer.uds.directory", defaultValue = "/tmp/rinha")
+            String directory,
+            @ConfigProperty(name = "peer.uds.peer-name", defaultValue = "peer")
+            String peerName,
+            @ConfigProperty(name = "peer.uds.pool-size", defaultValue = "4")
+            int poolSize,
+            @ConfigProperty(name = "peer.uds.timeout", defaultValue = "5s")
+            Duration timeout) {
+        LOGGER.info("Using '{}' transport to the peer", transport);
+        // Vert.x only binds and connects Unix domain sockets on a native transport
+        if (transport.equals("uds") && !vertx.isNativeTransportEnabled())
+            throw new IllegalStateException("peer.transport=uds needs quarkus.vertx.prefer-native-transport=true and the epoll native transport for this platform");
+        return switch (transport) {
+            case "tcp" -> restClient;
+            case "uds" -> new VertxInternalPaymentsManagement(
+                    vertx.createHttpClient(new HttpClientOptions().setKeepAlive(true), new PoolOptions().setHttp1MaxSize(poolSize)),
+                    SocketAddress.domainSocketAddress(directory + "/" + peerName + ".sock"), timeout, jsonb);
+            default -> throw new IllegalArgumentException("Unknown peer.transport: " + transport);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package org.acme.infrastructure;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentRequestDecoder;
+
+@ApplicationScoped
+public class JsonPaymentRequestDecoder implements PaymentRequestDecoder {
+
+    @Override
+    public NewPaymentRequest decode(byte[] body) {
+        return PaymentJsonCodec.readNewPaymentRequest(body, 0, body.length);
+    }
+}
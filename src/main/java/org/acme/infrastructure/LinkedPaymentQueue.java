@@ -0,0 +1,50 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@link PaymentQueue} backed by a {@link LinkedBlockingQueue}: unbounded in practice, one node per request and a
+ * lock on each side.
+ */
+public class LinkedPaymentQueue implements PaymentQueue {
+
+    private final LinkedBlockingQueue<PaymentIntake> queue;
+
+    public LinkedPaymentQueue(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offer(PaymentIntake paymentRequest) {
+        return queue.offer(paymentRequest);
+    }
+
+    @Override
+    public PaymentIntake poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public PaymentIntake take() throws InterruptedException {
+        return queue.take();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PaymentIntake> target, int maxElements) {
+        return queue.drainTo(target, maxElements);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+}
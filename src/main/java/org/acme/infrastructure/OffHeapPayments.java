@@ -0,0 +1,116 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Payments} that packs every payment into a fixed-width {@link PaymentSlots} slot of direct (off-heap)
+ * memory, allocated in segments of {@code segmentSlots} slots. Memory use is a predictable
+ * {@value PaymentSlots#SLOT_SIZE} bytes per payment and summaries scan memory the garbage collector never traces.
+ * <p>
+ * Writers reserve slots with a single atomic increment and publish them through the slot commit marker, so readers
+ * skip slots that are still being written.
+ */
+public class OffHeapPayments implements Payments {
+
+    public static final int DEFAULT_SEGMENT_SLOTS = 1 << 16;
+
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private volatile Log log;
+
+    public OffHeapPayments(int segmentSlots) {
+        if (segmentSlots <= 0 || Integer.bitCount(segmentSlots) != 1)
+            throw new IllegalArgumentException("Segment slots must be a positive power of two");
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSlots);
+        this.segmentMask = segmentSlots - 1;
+        this.log = new Log();
+    }
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        Log current = this.log;
+        write(current, current.cursor.getAndIncrement(), payment);
+    }
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+        List<Payment> batch = payments.stream().filter(Objects::nonNull).toList();
+        if (batch.isEmpty())
+            return;
+        Log current = this.log;
+        long slot = current.cursor.getAndAdd(batch.size());
+        for (Payment payment : batch)
+            write(current, slot++, payment);
+    }
+
+    private void write(Log log, long slot, Payment payment) {
+        ByteBuffer segment = log.segment((int) (slot >>> segmentShift), segmentMask + 1);
+        PaymentSlots.write(segment,
+                (int) (slot & segmentMask) * PaymentSlots.SLOT_SIZE,
+                PaymentSlots.toUuid(payment.correlationId()),
+                EpochNanos.of(payment.requestedAt()),
+                PackedAmount.pack(payment.amount()),
+                payment.processedBy().ordinal());
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        Log current = this.log;
+        long reserved = current.cursor.get();
+        ByteBuffer[] segments = current.segments;
+        for (int index = 0; reserved > 0 && index < segments.length; index++, reserved -= segmentMask + 1) {
+            ByteBuffer segment = segments[index];
+            if (segment != null)
+                PaymentSlots.summarize(segment, (int) Math.min(reserved, segmentMask + 1), fromNanos, toNanos, accumulator);
+        }
+        return accumulator.toPaymentsSummary();
+    }
+
+    @Override
+    public void purge() {
+        this.log = new Log();
+    }
+
+    private static final class Log {
+
+        private final AtomicLong cursor = new AtomicLong();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+        ByteBuffer segment(int index, int slots) {
+            ByteBuffer[] current = segments;
+            if (index < current.length && current[index] != null)
+                return current[index];
+            lock.lock();
+            try {
+                current = segments;
+                if (index < current.length && current[index] != null)
+                    return current[index];
+                // copy on write, so readers only ever see fully published buffers
+                current = Arrays.copyOf(current, Math.max(index + 1, current.length));
+                current[index] = ByteBuffer.allocateDirect(slots * PaymentSlots.SLOT_SIZE);
+                segments = current;
+                return current[index];
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
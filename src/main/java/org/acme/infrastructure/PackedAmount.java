@@ -0,0 +1,55 @@
+package org.acme.infrastructure;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Packs a {@link BigDecimal} amount into a single {@code long}: the unscaled value in the upper 60 bits and the
+ * scale in the lower 4 bits. Keeping the scale lets summaries reproduce exactly what {@link BigDecimal#add} would
+ * return, so stores built on top of it stay interchangeable with {@link InMemoryPayments}.
+ */
+final class PackedAmount {
+
+    static final int MAX_SCALE = 15;
+
+    private static final int SCALE_BITS = 4;
+    private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+    private static final long MAX_UNSCALED = Long.MAX_VALUE >> SCALE_BITS;
+    private static final long MIN_UNSCALED = Long.MIN_VALUE >> SCALE_BITS;
+
+    private PackedAmount() {
+    }
+
+    static long pack(BigDecimal amount) {
+        if (amount == null)
+            return 0L;
+        BigDecimal normalized = normalize(amount);
+        long unscaled = normalized.unscaledValue().longValueExact();
+        if (unscaled > MAX_UNSCALED || unscaled < MIN_UNSCALED)
+            throw new ArithmeticException("Amount out of range: " + amount);
+        return (unscaled << SCALE_BITS) | normalized.scale();
+    }
+
+    static long unscaled(long packedAmount) {
+        return packedAmount >> SCALE_BITS;
+    }
+
+    static int scale(long packedAmount) {
+        return (int) (packedAmount & SCALE_MASK);
+    }
+
+    static BigDecimal unpack(long packedAmount) {
+        return BigDecimal.valueOf(unscaled(packedAmount), scale(packedAmount));
+    }
+
+    private static BigDecimal normalize(BigDecimal amount) {
+        if (amount.scale() < 0)
+            return amount.setScale(0);
+        if (amount.scale() <= MAX_SCALE)
+            return amount;
+        BigDecimal stripped = amount.stripTrailingZeros();
+        if (stripped.scale() <= MAX_SCALE)
+            return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+        return amount.setScale(MAX_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
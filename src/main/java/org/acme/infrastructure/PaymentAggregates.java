@@ -0,0 +1,91 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-time-bucket counts and amount sums of each {@link RemotePaymentName}: what is left of payments once compacted.
+ * A summary can only use the buckets that lie entirely inside its range, so {@code bucketWidth} is the resolution at
+ * which compacted payments are still reported. Not thread-safe: it is built by one thread, then only read.
+ */
+final class PaymentAggregates {
+
+    private static final int PROCESSORS = RemotePaymentName.values().length;
+
+    private final long bucketWidth;
+    private final TreeMap<Long, SummaryAccumulator> buckets = new TreeMap<>();
+
+    PaymentAggregates(long bucketWidth) {
+        if (bucketWidth <= 0)
+            throw new IllegalArgumentException("Bucket width must be positive");
+        this.bucketWidth = bucketWidth;
+    }
+
+    long bucketWidth() {
+        return bucketWidth;
+    }
+
+    int buckets() {
+        return buckets.size();
+    }
+
+    void add(Payment payment) {
+        long packedAmount = PackedAmount.pack(payment.amount());
+        buckets.computeIfAbsent(Math.floorDiv(EpochNanos.of(payment.requestedAt()), bucketWidth), bucket -> new SummaryAccumulator())
+                .add(payment.processedBy().ordinal(), 1L, PackedAmount.unscaled(packedAmount), PackedAmount.scale(packedAmount));
+    }
+
+    /**
+     * Adds the buckets lying entirely in {@code [from, to]} (epoch nanos) to the accumulator.
+     */
+    void summarize(long from, long to, SummaryAccumulator accumulator) {
+        long first = Math.ceilDiv(from, bucketWidth);
+        long last = Math.floorDiv(to, bucketWidth);
+        if (Math.floorMod(to, bucketWidth) != bucketWidth - 1)
+            last--;
+        if (first <= last)
+            buckets.subMap(first, true, last, true).values().forEach(accumulator::merge);
+    }
+
+    PaymentAggregates copy() {
+        PaymentAggregates copy = new PaymentAggregates(bucketWidth);
+        buckets.forEach((bucket, sums) -> copy.buckets.put(bucket, new SummaryAccumulator().merge(sums)));
+        return copy;
+    }
+
+    void write(DataOutput output) throws IOException {
+        output.writeLong(bucketWidth);
+        output.writeInt(buckets.size());
+        for (Map.Entry<Long, SummaryAccumulator> entry : buckets.entrySet()) {
+            output.writeLong(entry.getKey());
+            SummaryAccumulator sums = entry.getValue();
+            for (int processor = 0; processor < PROCESSORS; processor++) {
+                output.writeLong(sums.count(processor));
+                output.writeLong(sums.unscaledSum(processor));
+                output.writeByte(sums.scale(processor));
+            }
+        }
+    }
+
+    static PaymentAggregates read(DataInput input) throws IOException {
+        PaymentAggregates aggregates = new PaymentAggregates(input.readLong());
+        for (int remaining = input.readInt(); remaining > 0; remaining--) {
+            SummaryAccumulator sums = new SummaryAccumulator();
+            aggregates.buckets.put(input.readLong(), sums);
+            for (int processor = 0; processor < PROCESSORS; processor++) {
+                long count = input.readLong();
+                long unscaledSum = input.readLong();
+                int scale = input.readByte();
+                if (count > 0)
+                    sums.add(processor, count, unscaledSum, scale);
+            }
+        }
+        return aggregates;
+    }
+}
@@ -0,0 +1,98 @@
+package org.acme.infrastructure;
+
+import java.util.Arrays;
+
+/**
+ * Append-only columnar storage of payments: primitive epoch-nanos timestamps, packed amounts and processor ordinals,
+ * laid out in fixed-size chunks so growth never copies previously stored values.
+ * <p>
+ * Appends must be serialized by the caller (a lock or a single writer thread); readers never block and see every
+ * payment appended before the {@code size} they observe.
+ */
+final class PaymentColumns {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Chunk[] chunks = new Chunk[1];
+    private volatile int size;
+
+    void append(long requestedAt, long packedAmount, int processor) {
+        int index = size;
+        int chunkIndex = index >>> CHUNK_SHIFT;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+            chunks = current;
+        }
+        Chunk chunk = current[chunkIndex];
+        if (chunk == null) {
+            chunk = new Chunk();
+            current[chunkIndex] = chunk;
+        }
+        int offset = index & CHUNK_MASK;
+        chunk.requestedAt[offset] = requestedAt;
+        chunk.amounts[offset] = packedAmount;
+        chunk.processors[offset] = (byte) processor;
+        size = index + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void summarize(long from, long to, SummaryAccumulator accumulator) {
+        int length = size;
+        Chunk[] current = chunks;
+        for (int chunkIndex = 0, remaining = length; remaining > 0; chunkIndex++, remaining -= CHUNK_SIZE) {
+            current[chunkIndex].summarize(Math.min(remaining, CHUNK_SIZE), from, to, accumulator);
+        }
+    }
+
+    void summarizeAll(SummaryAccumulator accumulator) {
+        summarize(Long.MIN_VALUE, Long.MAX_VALUE, accumulator);
+    }
+
+    /**
+     * Timestamp of the payment at {@code index}, which must be lower than a previously observed {@link #size()}.
+     */
+    long requestedAt(int index) {
+        return chunks[index >>> CHUNK_SHIFT].requestedAt[index & CHUNK_MASK];
+    }
+
+    /**
+     * Summarizes the payments in {@code [fromIndex, toIndex)} without looking at their timestamps.
+     */
+    void summarizeSlice(int fromIndex, int toIndex, SummaryAccumulator accumulator) {
+        Chunk[] current = chunks;
+        for (int index = fromIndex; index < toIndex; ) {
+            Chunk chunk = current[index >>> CHUNK_SHIFT];
+            int offset = index & CHUNK_MASK;
+            int length = Math.min(CHUNK_SIZE - offset, toIndex - index);
+            chunk.summarizeSlice(offset, length, accumulator);
+            index += length;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final long[] requestedAt = new long[CHUNK_SIZE];
+        private final long[] amounts = new long[CHUNK_SIZE];
+        private final byte[] processors = new byte[CHUNK_SIZE];
+
+        void summarizeSlice(int offset, int length, SummaryAccumulator accumulator) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                accumulator.add(processors[i], amounts[i]);
+            }
+        }
+
+        void summarize(int length, long from, long to, SummaryAccumulator accumulator) {
+            for (int i = 0; i < length; i++) {
+                long timestamp = requestedAt[i];
+                if (timestamp >= from && timestamp <= to)
+                    accumulator.add(processors[i], amounts[i]);
+            }
+        }
+    }
+}
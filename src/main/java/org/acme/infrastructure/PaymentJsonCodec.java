@@ -0,0 +1,542 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentRequest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * JSON codec for the fixed shapes of the payment hot path: the incoming {@code {correlationId, amount}}, the
+ * {@code {correlationId, amount, requestedAt}} sent to the processors and the {@link PaymentsSummary}. It reads and
+ * writes bytes directly, with no reflection: field names are matched as bytes, small amounts are built from their
+ * digits and numbers and instants are written digit by digit. Numbers are read and written like JSON-B does, as
+ * {@link BigDecimal}s with their scale, so both sides stay interchangeable.
+ */
+public final class PaymentJsonCodec {
+
+    private static final byte[] CORRELATION_ID = ascii("correlationId");
+    private static final byte[] AMOUNT = ascii("amount");
+    private static final byte[] REQUESTED_AT = ascii("requestedAt");
+    private static final byte[] DEFAULT = ascii("default");
+    private static final byte[] FALLBACK = ascii("fallback");
+    private static final byte[] TOTAL_REQUESTS = ascii("totalRequests");
+    private static final byte[] TOTAL_AMOUNT = ascii("totalAmount");
+    private static final byte[] NULL = ascii("null");
+
+    private static final byte[] CORRELATION_ID_FIELD = ascii("{\"correlationId\":");
+    private static final byte[] AMOUNT_FIELD = ascii(",\"amount\":");
+    private static final byte[] REQUESTED_AT_FIELD = ascii(",\"requestedAt\":");
+    private static final byte[] DEFAULT_FIELD = ascii("{\"default\":");
+    private static final byte[] FALLBACK_FIELD = ascii(",\"fallback\":");
+    private static final byte[] TOTAL_REQUESTS_FIELD = ascii("{\"totalRequests\":");
+    private static final byte[] TOTAL_AMOUNT_FIELD = ascii(",\"totalAmount\":");
+
+    // an unscaled value of up to 18 digits always fits in a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private PaymentJsonCodec() {
+    }
+
+    public static NewPaymentRequest readNewPaymentRequest(byte[] json, int offset, int length) {
+        Reader reader = new Reader(json, offset, offset + length);
+        String correlationId = null;
+        BigDecimal amount = null;
+        reader.beginObject();
+        while (reader.nextField()) {
+            if (reader.fieldIs(CORRELATION_ID))
+                correlationId = reader.readString();
+            else if (reader.fieldIs(AMOUNT))
+                amount = reader.readDecimal();
+            else
+                reader.skipValue();
+        }
+        reader.end();
+        return new NewPaymentRequest(correlationId, amount);
+    }
+
+    public static PaymentsSummary readPaymentsSummary(byte[] json, int offset, int length) {
+        Reader reader = new Reader(json, offset, offset + length);
+        PaymentSummary defaultSummary = null;
+        PaymentSummary fallbackSummary = null;
+        reader.beginObject();
+        while (reader.nextField()) {
+            if (reader.fieldIs(DEFAULT))
+                defaultSummary = readPaymentSummary(reader);
+            else if (reader.fieldIs(FALLBACK))
+                fallbackSummary = readPaymentSummary(reader);
+            else
+                reader.skipValue();
+        }
+        reader.end();
+        return PaymentsSummary.of(defaultSummary, fallbackSummary);
+    }
+
+    private static PaymentSummary readPaymentSummary(Reader reader) {
+        if (reader.skipNull())
+            return null;
+        long totalRequests = 0;
+        BigDecimal totalAmount = null;
+        reader.beginObject();
+        while (reader.nextField()) {
+            if (reader.fieldIs(TOTAL_REQUESTS))
+                totalRequests = reader.readLong();
+            else if (reader.fieldIs(TOTAL_AMOUNT))
+                totalAmount = reader.readDecimal();
+            else
+                reader.skipValue();
+        }
+        return PaymentSummary.of(totalRequests, totalAmount);
+    }
+
+    public static byte[] write(RemotePaymentRequest request) {
+        Writer writer = new Writer(128);
+        writer.raw(CORRELATION_ID_FIELD);
+        writer.string(request.correlationId());
+        writer.raw(AMOUNT_FIELD);
+        writer.decimal(request.amount());
+        writer.raw(REQUESTED_AT_FIELD);
+        writer.instant(request.requestedAt());
+        writer.raw('}');
+        return writer.toByteArray();
+    }
+
+    public static byte[] write(PaymentsSummary summary) {
+        Writer writer = new Writer(160);
+        writer.raw(DEFAULT_FIELD);
+        write(writer, summary.defaultPaymentSummary());
+        writer.raw(FALLBACK_FIELD);
+        write(writer, summary.fallbackPaymentSummary());
+        writer.raw('}');
+        return writer.toByteArray();
+    }
+
+    private static void write(Writer writer, PaymentSummary summary) {
+        writer.raw(TOTAL_REQUESTS_FIELD);
+        writer.number(summary.totalRequests());
+        writer.raw(TOTAL_AMOUNT_FIELD);
+        writer.decimal(summary.totalAmount());
+        writer.raw('}');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Reader {
+
+        private final byte[] json;
+        private final int end;
+        private int position;
+        private int keyStart;
+        private int keyEnd;
+        private boolean firstField;
+
+        Reader(byte[] json, int start, int end) {
+            this.json = json;
+            this.position = start;
+            this.end = end;
+        }
+
+        void beginObject() {
+            expect('{');
+            firstField = true;
+        }
+
+        /**
+         * Moves to the value of the next field, remembering its name, or past the closing brace if there is none.
+         */
+        boolean nextField() {
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return false;
+            }
+            if (!firstField)
+                expect(',');
+            firstField = false;
+            expect('"');
+            keyStart = position;
+            keyEnd = skipString();
+            expect(':');
+            skipWhitespace();
+            return true;
+        }
+
+        boolean fieldIs(byte[] name) {
+            return Arrays.equals(json, keyStart, keyEnd, name, 0, name.length);
+        }
+
+        void end() {
+            skipWhitespace();
+            if (position != end)
+                throw malformed();
+        }
+
+        String readString() {
+            if (skipNull())
+                return null;
+            expect('"');
+            int start = position;
+            int stop = skipString();
+            for (int i = start; i < stop; i++) {
+                if (json[i] == '\\')
+                    return unescape(start, stop);
+            }
+            return new String(json, start, stop - start, StandardCharsets.UTF_8);
+        }
+
+        BigDecimal readDecimal() {
+            if (skipNull())
+                return null;
+            int start = position;
+            boolean negative = peek() == '-';
+            if (negative)
+                position++;
+            long unscaled = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean fraction = false;
+            boolean simple = true;
+            while (position < end) {
+                byte c = json[position];
+                if (c >= '0' && c <= '9') {
+                    unscaled = unscaled * 10 + (c - '0');
+                    digits++;
+                    if (fraction)
+                        scale++;
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else if (c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    simple = false;
+                } else {
+                    break;
+                }
+                position++;
+            }
+            if (digits == 0)
+                throw malformed();
+            if (simple && digits <= MAX_LONG_DIGITS)
+                return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+            try {
+                return new BigDecimal(new String(json, start, position - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw malformed();
+            }
+        }
+
+        long readLong() {
+            BigDecimal value = readDecimal();
+            if (value == null)
+                throw malformed();
+            try {
+                return value.longValueExact();
+            } catch (ArithmeticException e) {
+                throw malformed();
+            }
+        }
+
+        boolean skipNull() {
+            if (end - position >= NULL.length && Arrays.equals(json, position, position + NULL.length, NULL, 0, NULL.length)) {
+                position += NULL.length;
+                return true;
+            }
+            return false;
+        }
+
+        void skipValue() {
+            int depth = 0;
+            do {
+                skipWhitespace();
+                byte c = peek();
+                if (c == '"') {
+                    position++;
+                    skipString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                    position++;
+                } else if (c == '}' || c == ']') {
+                    if (depth == 0)
+                        throw malformed();
+                    depth--;
+                    position++;
+                } else if (c == ',' || c == ':') {
+                    if (depth == 0)
+                        throw malformed();
+                    position++;
+                } else {
+                    int start = position;
+                    while (position < end && isLiteralByte(json[position]))
+                        position++;
+                    if (position == start)
+                        throw malformed();
+                }
+            } while (depth > 0);
+        }
+
+        private static boolean isLiteralByte(byte c) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || c == '-' || c == '+' || c == '.' || c == 'E';
+        }
+
+        /**
+         * Skips the rest of a string whose opening quote was consumed, returning where its content ends.
+         */
+        private int skipString() {
+            while (position < end) {
+                byte c = json[position];
+                if (c == '"') {
+                    return position++;
+                }
+                position += c == '\\' ? 2 : 1;
+            }
+            throw malformed();
+        }
+
+        private String unescape(int start, int stop) {
+            StringBuilder value = new StringBuilder(stop - start);
+            int i = start;
+            while (i < stop) {
+                byte c = json[i];
+                if (c != '\\') {
+                    int runEnd = i;
+                    while (runEnd < stop && json[runEnd] != '\\')
+                        runEnd++;
+                    value.append(new String(json, i, runEnd - i, StandardCharsets.UTF_8));
+                    i = runEnd;
+                    continue;
+                }
+                byte escaped = json[i + 1];
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append((char) escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (i + 6 > stop)
+                            throw malformed();
+                        try {
+                            value.append((char) Integer.parseInt(new String(json, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed();
+                        }
+                        i += 4;
+                    }
+                    default -> throw malformed();
+                }
+                i += 2;
+            }
+            return value.toString();
+        }
+
+        private void expect(char expected) {
+            skipWhitespace();
+            if (peek() != expected)
+                throw malformed();
+            position++;
+        }
+
+        private byte peek() {
+            if (position >= end)
+                throw malformed();
+            return json[position];
+        }
+
+        private void skipWhitespace() {
+            while (position < end) {
+                byte c = json[position];
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                    return;
+                position++;
+            }
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed JSON at offset " + position);
+        }
+    }
+
+    private static final class Writer {
+
+        private byte[] bytes;
+        private int size;
+
+        Writer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        void raw(byte[] fragment) {
+            ensure(fragment.length);
+            System.arraycopy(fragment, 0, bytes, size, fragment.length);
+            size += fragment.length;
+        }
+
+        void raw(char c) {
+            ensure(1);
+            bytes[size++] = (byte) c;
+        }
+
+        void string(String value) {
+            if (value == null) {
+                raw(NULL);
+                return;
+            }
+            raw('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    raw('\\');
+                    raw(c);
+                } else if (c < 0x20) {
+                    raw('\\');
+                    raw('u');
+                    raw('0');
+                    raw('0');
+                    raw(Character.forDigit(c >> 4, 16));
+                    raw(Character.forDigit(c & 0xF, 16));
+                } else if (c < 0x80) {
+                    raw(c);
+                } else {
+                    int codePoint = value.codePointAt(i);
+                    if (Character.isSupplementaryCodePoint(codePoint))
+                        i++;
+                    utf8(codePoint);
+                }
+            }
+            raw('"');
+        }
+
+        private void utf8(int codePoint) {
+            if (codePoint < 0x800) {
+                raw((char) (0xC0 | codePoint >> 6));
+                raw((char) (0x80 | codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                raw((char) (0xE0 | codePoint >> 12));
+                raw((char) (0x80 | codePoint >> 6 & 0x3F));
+                raw((char) (0x80 | codePoint & 0x3F));
+            } else {
+                raw((char) (0xF0 | codePoint >> 18));
+                raw((char) (0x80 | codePoint >> 12 & 0x3F));
+                raw((char) (0x80 | codePoint >> 6 & 0x3F));
+                raw((char) (0x80 | codePoint & 0x3F));
+            }
+        }
+
+        void number(long value) {
+            if (value < 0) {
+                if (value == Long.MIN_VALUE) {
+                    raw(ascii(Long.toString(value)));
+                    return;
+                }
+                raw('-');
+                value = -value;
+            }
+            digits(value, 1);
+        }
+
+        /**
+         * Writes {@code BigDecimal.toString()}, digit by digit when it is a plain number of up to 18 digits.
+         */
+        void decimal(BigDecimal value) {
+            if (value == null) {
+                raw(NULL);
+                return;
+            }
+            int scale = value.scale();
+            int precision = value.precision();
+            if (scale < 0 || precision > MAX_LONG_DIGITS || precision - 1 - scale < -6) {
+                raw(ascii(value.toString()));
+                return;
+            }
+            long unscaled = value.unscaledValue().longValue();
+            if (unscaled < 0) {
+                raw('-');
+                unscaled = -unscaled;
+            }
+            if (scale == 0) {
+                digits(unscaled, 1);
+                return;
+            }
+            long pow = 1;
+            for (int i = 0; i < scale; i++)
+                pow *= 10;
+            digits(unscaled / pow, 1);
+            raw('.');
+            digits(unscaled % pow, scale);
+        }
+
+        /**
+         * Writes {@code Instant.toString()}: ISO-8601 in UTC with 0, 3, 6 or 9 fraction digits.
+         */
+        void instant(Instant instant) {
+            if (instant == null) {
+                raw(NULL);
+                return;
+            }
+            long seconds = instant.getEpochSecond();
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(seconds, 86_400));
+            if (date.getYear() < 0 || date.getYear() > 9999) {
+                raw('"');
+                raw(ascii(instant.toString()));
+                raw('"');
+                return;
+            }
+            int secondOfDay = Math.floorMod(seconds, 86_400);
+            raw('"');
+            digits(date.getYear(), 4);
+            raw('-');
+            digits(date.getMonthValue(), 2);
+            raw('-');
+            digits(date.getDayOfMonth(), 2);
+            raw('T');
+            digits(secondOfDay / 3600, 2);
+            raw(':');
+            digits(secondOfDay / 60 % 60, 2);
+            raw(':');
+            digits(secondOfDay % 60, 2);
+            int nanos = instant.getNano();
+            if (nanos != 0) {
+                raw('.');
+                if (nanos % 1_000_000 == 0)
+                    digits(nanos / 1_000_000, 3);
+                else if (nanos % 1_000 == 0)
+                    digits(nanos / 1_000, 6);
+                else
+                    digits(nanos, 9);
+            }
+            raw('Z');
+            raw('"');
+        }
+
+        /**
+         * Writes a non-negative value, left-padded with zeros to {@code minDigits}.
+         */
+        private void digits(long value, int minDigits) {
+            int count = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10)
+                count++;
+            count = Math.max(count, minDigits);
+            ensure(count);
+            for (int i = size + count - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size += count;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of payments in memory-mapped segment files of {@code segmentSlots} {@link PaymentSlots} slots.
+ * Appends reserve slots with an atomic increment and write them through the mapping: no system call per payment, and
+ * the written pages belong to the OS page cache, so they survive a crash of the process. {@link #sync()} forces them
+ * to the device, committing every append since the previous call at once, against a crash of the host.
+ * <p>
+ * Each start appends to a new segment after the existing ones, which are only read by {@link #replay}.
+ */
+public class PaymentLog {
+
+    public static final int DEFAULT_SEGMENT_SLOTS = 1 << 20;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("payments-(\\d{10})\\.wal");
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private final Path directory;
+    private final int segmentSlots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Log log;
+
+    public PaymentLog(Path directory, int segmentSlots) {
+        if (segmentSlots < 1 || (long) segmentSlots * PaymentSlots.SLOT_SIZE > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Segment slots must be between 1 and " + Integer.MAX_VALUE / PaymentSlots.SLOT_SIZE);
+        this.directory = directory;
+        this.segmentSlots = segmentSlots;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the payments log directory " + directory, e);
+        }
+        long next = segmentIndexes().max().orElse(-1L) + 1;
+        this.log = new Log(next);
+    }
+
+    public void append(Payment payment) {
+        if (payment == null)
+            return;
+        Log current = this.log;
+        write(current, current.cursor.getAndIncrement(), payment);
+    }
+
+    public void appendAll(Collection<Payment> payments) {
+        List<Payment> batch = payments.stream().filter(Objects::nonNull).toList();
+        if (batch.isEmpty())
+            return;
+        Log current = this.log;
+        long slot = current.cursor.getAndAdd(batch.size());
+        for (Payment payment : batch)
+            write(current, slot++, payment);
+    }
+
+    private void write(Log log, long slot, Payment payment) {
+        MappedByteBuffer segment = segment(log, (int) (slot / segmentSlots));
+        if (segment == null)
+            return;
+        PaymentSlots.write(segment,
+                (int) (slot % segmentSlots) * PaymentSlots.SLOT_SIZE,
+                PaymentSlots.toUuid(payment.correlationId()),
+                EpochNanos.of(payment.requestedAt()),
+                PackedAmount.pack(payment.amount()),
+                payment.processedBy().ordinal());
+    }
+
+    /**
+     * Hands every committed payment of the segments written before this start to the consumer, in log order.
+     */
+    public void replay(Consumer<Payment> consumer) {
+        replay(0L, consumer);
+    }
+
+    /**
+     * Like {@link #replay(Consumer)}, starting at segment {@code fromSegment}.
+     */
+    public void replay(long fromSegment, Consumer<Payment> consumer) {
+        read(fromSegment, this.log.firstSegment, consumer);
+    }
+
+    /**
+     * Hands every committed payment of the segments in {@code [fromSegment, toSegment)} to the consumer, in log order.
+     */
+    void read(long fromSegment, long toSegment, Consumer<Payment> consumer) {
+        segmentIndexes().sorted()
+                .filter(index -> index >= fromSegment && index < toSegment)
+                .forEach(index -> replaySegment(index, consumer));
+    }
+
+    /**
+     * Index of the first segment that may still be appended to: the one holding the write cursor, and the one before,
+     * whose last reserved slots may still be in flight.
+     */
+    long sealedSegments() {
+        Log current = this.log;
+        return current.firstSegment + Math.max(0L, current.cursor.get() / segmentSlots - 1);
+    }
+
+    /**
+     * Deletes the sealed segments before {@code toSegment}, once their payments are kept elsewhere.
+     */
+    void truncate(long toSegment) {
+        long bound = Math.min(toSegment, sealedSegments());
+        lock.lock();
+        try {
+            Log current = this.log;
+            // drop our mappings of deleted segments, so their pages can be released
+            MappedByteBuffer[] segments = current.segments.clone();
+            for (int position = 0; position < segments.length && current.firstSegment + position < bound; position++)
+                segments[position] = null;
+            current.segments = segments;
+            for (long index : segmentIndexes().filter(index -> index < bound).toArray())
+                Files.deleteIfExists(segmentPath(index));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not truncate the payments log " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replaySegment(long index, Consumer<Payment> consumer) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+            int slots = (int) Math.min(segmentSlots, channel.size() / PaymentSlots.SLOT_SIZE);
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) slots * PaymentSlots.SLOT_SIZE);
+            for (int offset = 0, end = slots * PaymentSlots.SLOT_SIZE; offset < end; offset += PaymentSlots.SLOT_SIZE) {
+                int processor = PaymentSlots.processor(segment, offset);
+                // a slot reserved but not written before a crash
+                if (processor < 0)
+                    continue;
+                consumer.accept(Payment.of(PaymentSlots.correlationId(segment, offset).toString(),
+                        PROCESSORS[processor],
+                        PackedAmount.unpack(PaymentSlots.amount(segment, offset)),
+                        EpochNanos.toInstant(PaymentSlots.requestedAt(segment, offset))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay payments log segment " + index, e);
+        }
+    }
+
+    /**
+     * Forces the segments appended to since the previous call to the device. Not thread-safe: one thread syncs.
+     */
+    public void sync() {
+        Log current = this.log;
+        long reserved = current.cursor.get();
+        // one more pass once appends stop, for slots reserved before the last sync but written after it
+        if (reserved == current.synced && current.idle)
+            return;
+        current.idle = reserved == current.synced;
+        int last = (int) ((reserved - 1) / segmentSlots);
+        MappedByteBuffer[] segments = current.segments;
+        // the previous segment again: a slot reserved in it may have been written after it was last forced
+        for (int position = Math.max(0, (int) (current.synced / segmentSlots) - 1); position <= last && position < segments.length; position++) {
+            if (segments[position] != null)
+                segments[position].force();
+        }
+        current.synced = reserved;
+    }
+
+    /**
+     * Deletes every segment and starts over from position 0. An append that raced with it is dropped, rather than
+     * written to a segment of the new log.
+     */
+    public void purge() {
+        lock.lock();
+        try {
+            this.log = new Log(0L);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(PaymentLog::isSegment).toList())
+                    Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not purge the payments log " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // null once the log was purged: mapping would recreate a deleted segment, or one of the new log
+    private MappedByteBuffer segment(Log log, int position) {
+        MappedByteBuffer[] current = log.segments;
+        if (position < current.length && current[position] != null)
+            return current[position];
+        lock.lock();
+        try {
+            if (log != this.log)
+                return null;
+            current = log.segments;
+            if (position < current.length && current[position] != null)
+                return current[position];
+            // copy on write, so the syncing thread only ever sees fully published buffers
+            current = Arrays.copyOf(current, Math.max(position + 1, current.length));
+            current[position] = map(log.firstSegment + position);
+            log.segments = current;
+            return current[position];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private MappedByteBuffer map(long index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentSlots * PaymentSlots.SLOT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map payments log segment " + index, e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve("payments-%010d.wal".formatted(index));
+    }
+
+    private static boolean isSegment(Path file) {
+        return SEGMENT_NAME.matcher(file.getFileName().toString()).matches();
+    }
+
+    private LongStream segmentIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            long[] indexes = files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .toArray();
+            return Arrays.stream(indexes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the payments log " + directory, e);
+        }
+    }
+
+    private static final class Log {
+
+        private final long firstSegment;
+        private final AtomicLong cursor = new AtomicLong();
+        private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+        // only touched by the syncing thread: slots reserved at the last sync, and whether none were since the one
+        // before
+        private long synced;
+        private boolean idle;
+
+        Log(long firstSegment) {
+            this.firstSegment = firstSegment;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.acme.infrastructure;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import org.acme.domain.PaymentQueue;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ApplicationScoped
+public class PaymentQueueProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentQueueProducer.class);
+
+    @Produces
+    @ApplicationScoped
+    public PaymentQueue paymentQueue(
+            @ConfigProperty(name = "worker.queue", defaultValue = "linked")
+            String queue,
+            @ConfigProperty(name = "worker.queue-buffer", defaultValue = "10000")
+            int queueBuffer,
+            @ConfigProperty(name = "worker.ring-buffer.capacity", defaultValue = "65536")
+            int ringBufferCapacity,
+            @ConfigProperty(name = "worker.durable.directory", defaultValue = "/tmp/rinha/intake")
+            Path durableDirectory,
+            @ConfigProperty(name = "worker.durable.chunk-bytes", defaultValue = "16777216")
+            int durableChunkBytes,
+            @ConfigProperty(name = "worker.durable.sync-interval", defaultValue = "10ms")
+            Duration durableSyncInterval) {
+        LOGGER.info("Using '{}' payment intake queue", queue);
+        return switch (queue) {
+            case "linked" -> new LinkedPaymentQueue(queueBuffer);
+            case "ring-buffer" -> new RingBufferPaymentQueue(ringBufferCapacity);
+            case "durable" -> {
+                DurablePaymentQueue durable = new DurablePaymentQueue(durableDirectory, queueBuffer, durableChunkBytes, durableSyncInterval);
+                durable.start();
+                yield durable;
+            }
+            default -> throw new IllegalArgumentException("Unknown payment queue: " + queue);
+        };
+    }
+
+    void close(@Disposes PaymentQueue queue) {
+        if (queue instanceof DurablePaymentQueue durable)
+            durable.close();
+    }
+}
@@ -0,0 +1,47 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import org.acme.domain.PaymentReplicationChannel;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class PaymentReplicationChannelProducer {
+
+    @Produces
+    @ApplicationScoped
+    public PaymentReplicationChannel paymentReplicationChannel(
+            Vertx vertx,
+            @ConfigProperty(name = "peer.replication.port", defaultValue = "9090")
+            int port,
+            @ConfigProperty(name = "peer.replication.peer-host", defaultValue = "localhost")
+            String peerHost,
+            @ConfigProperty(name = "peer.replication.peer-port", defaultValue = "9090")
+            int peerPort,
+            @ConfigProperty(name = "peer.replication.timeout", defaultValue = "1s")
+            Duration timeout,
+            @ConfigProperty(name = "peer.transport", defaultValue = "tcp")
+            String transport,
+            @ConfigProperty(name = "peer.uds.directory", defaultValue = "/tmp/rinha")
+            String directory,
+            @ConfigProperty(name = "peer.uds.name", defaultValue = "api")
+            String name,
+            @ConfigProperty(name = "peer.uds.peer-name", defaultValue = "peer")
+            String peerName) {
+        return switch (transport) {
+            case "tcp" -> new VertxPaymentReplicationChannel(vertx,
+                    SocketAddress.inetSocketAddress(port, "0.0.0.0"),
+                    SocketAddress.inetSocketAddress(peerPort, peerHost),
+                    timeout);
+            case "uds" -> new VertxPaymentReplicationChannel(vertx,
+                    SocketAddress.domainSocketAddress(directory + "/" + name + "-replication.sock"),
+                    SocketAddress.domainSocketAddress(directory + "/" + peerName + "-replication.sock"),
+                    timeout);
+            default -> throw new IllegalArgumentException("Unknown peer.transport: " + transport);
+        };
+    }
+}
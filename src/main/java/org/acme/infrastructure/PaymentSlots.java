@@ -0,0 +1,107 @@
+package org.acme.infrastructure;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Fixed-width binary layout of a stored payment inside a direct or mapped {@link ByteBuffer}:
+ * <pre>
+ *  0  correlationId, most significant bits
+ *  8  correlationId, least significant bits
+ * 16  requestedAt, epoch nanos
+ * 24  amount, see {@link PackedAmount}
+ * 32  processor ordinal + 1, written last with release semantics (0 means "not committed yet")
+ * </pre>
+ * Slots must start at 8-byte aligned offsets so the commit marker can be accessed atomically.
+ */
+final class PaymentSlots {
+
+    static final int SLOT_SIZE = 40;
+
+    private static final int ID_MSB = 0;
+    private static final int ID_LSB = 8;
+    private static final int REQUESTED_AT = 16;
+    private static final int AMOUNT = 24;
+    private static final int PROCESSOR = 32;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private PaymentSlots() {
+    }
+
+    static void write(ByteBuffer buffer, int offset, UUID correlationId, long requestedAt, long packedAmount, int processor) {
+        LONGS.set(buffer, offset + ID_MSB, correlationId.getMostSignificantBits());
+        LONGS.set(buffer, offset + ID_LSB, correlationId.getLeastSignificantBits());
+        LONGS.set(buffer, offset + REQUESTED_AT, requestedAt);
+        LONGS.set(buffer, offset + AMOUNT, packedAmount);
+        LONGS.setRelease(buffer, offset + PROCESSOR, processor + 1L);
+    }
+
+    /**
+     * Marks the slot as not committed, so it is skipped until written again.
+     */
+    static void clear(ByteBuffer buffer, int offset) {
+        LONGS.setRelease(buffer, offset + PROCESSOR, 0L);
+    }
+
+    /**
+     * @return the processor ordinal of the slot, or {@code -1} if the slot has not been committed yet
+     */
+    static int processor(ByteBuffer buffer, int offset) {
+        return (int) ((long) LONGS.getAcquire(buffer, offset + PROCESSOR)) - 1;
+    }
+
+    static long requestedAt(ByteBuffer buffer, int offset) {
+        return (long) LONGS.get(buffer, offset + REQUESTED_AT);
+    }
+
+    static long amount(ByteBuffer buffer, int offset) {
+        return (long) LONGS.get(buffer, offset + AMOUNT);
+    }
+
+    static UUID correlationId(ByteBuffer buffer, int offset) {
+        return new UUID((long) LONGS.get(buffer, offset + ID_MSB), (long) LONGS.get(buffer, offset + ID_LSB));
+    }
+
+    /**
+     * Summarizes the committed slots among the first {@code slots} slots of the buffer.
+     */
+    static void summarize(ByteBuffer buffer, int slots, long from, long to, SummaryAccumulator accumulator) {
+        for (int offset = 0, end = slots * SLOT_SIZE; offset < end; offset += SLOT_SIZE) {
+            int processor = processor(buffer, offset);
+            if (processor < 0)
+                continue;
+            long requestedAt = requestedAt(buffer, offset);
+            if (requestedAt >= from && requestedAt <= to)
+                accumulator.add(processor, amount(buffer, offset));
+        }
+    }
+
+    /**
+     * Correlation ids are UUIDs in practice; anything else is stored as a name-based UUID of its UTF-8 bytes.
+     */
+    static UUID toUuid(String correlationId) {
+        if (correlationId == null)
+            return new UUID(0L, 0L);
+        if (looksLikeUuid(correlationId)) {
+            try {
+                return UUID.fromString(correlationId);
+            } catch (IllegalArgumentException e) {
+                // fall through to a name-based UUID
+            }
+        }
+        return UUID.nameUUIDFromBytes(correlationId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean looksLikeUuid(String value) {
+        return value.length() == 36
+                && value.charAt(8) == '-'
+                && value.charAt(13) == '-'
+                && value.charAt(18) == '-'
+                && value.charAt(23) == '-';
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme.infrastructure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The latest compacted snapshot of a {@link PaymentLog}, kept as one binary file next to its segments: a magic
+ * number, the number of leading log segments it covers, the {@link PaymentAggregates} of their payments and a CRC32
+ * of all that. It is written to a temporary file and moved over the previous one, so a crash leaves either.
+ */
+public class PaymentSnapshots {
+
+    private static final int MAGIC = 0x52504153;
+    private static final String FILE = "payments.snapshot";
+
+    private final Path file;
+    private final Path temporary;
+
+    public PaymentSnapshots(Path directory) {
+        this.file = directory.resolve(FILE);
+        this.temporary = directory.resolve(FILE + ".tmp");
+    }
+
+    record Snapshot(long segments, PaymentAggregates aggregates) {
+    }
+
+    Optional<Snapshot> load() {
+        try (CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), new CRC32());
+             DataInputStream input = new DataInputStream(checked)) {
+            if (input.readInt() != MAGIC)
+                throw new IllegalStateException("Not a payments snapshot: " + file);
+            Snapshot snapshot = new Snapshot(input.readLong(), PaymentAggregates.read(input));
+            long computed = checked.getChecksum().getValue();
+            if (input.readLong() != computed)
+                throw new IllegalStateException("Corrupted payments snapshot: " + file);
+            return Optional.of(snapshot);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the payments snapshot " + file, e);
+        }
+    }
+
+    void save(Snapshot snapshot) {
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), new CRC32());
+                DataOutputStream output = new DataOutputStream(checked);
+                output.writeInt(MAGIC);
+                output.writeLong(snapshot.segments());
+                snapshot.aggregates().write(output);
+                output.writeLong(checked.getChecksum().getValue());
+                output.flush();
+                // durable before it replaces the previous snapshot and the log segments it covers are deleted
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the payments snapshot " + file, e);
+        }
+    }
+
+    void purge() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete the payments snapshot " + file, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme.infrastructure;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import org.acme.domain.Payments;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ApplicationScoped
+public class PaymentsProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentsProducer.class);
+
+    @Produces
+    @ApplicationScoped
+    public Payments payments(
+            @ConfigProperty(name = "payments.storage", defaultValue = "in-memory")
+            String storage,
+            @ConfigProperty(name = "payments.bucketed.bucket-width", defaultValue = "1s")
+            Duration bucketWidth,
+            @ConfigProperty(name = "payments.off-heap.segment-slots", defaultValue = "65536")
+            int offHeapSegmentSlots,
+            @ConfigProperty(name = "payments.sorted.out-of-order-tolerance", defaultValue = "1s")
+            Duration outOfOrderTolerance,
+            @ConfigProperty(name = "payments.shared-mapped.file", defaultValue = "/dev/shm/rinha/payments")
+            Path sharedFile,
+            @ConfigProperty(name = "payments.shared-mapped.region", defaultValue = "0")
+            int sharedRegion,
+            @ConfigProperty(name = "payments.shared-mapped.regions", defaultValue = "2")
+            int sharedRegions,
+            @ConfigProperty(name = "payments.shared-mapped.region-slots", defaultValue = "1048576")
+            int sharedRegionSlots,
+            @ConfigProperty(name = "payments.wal.enabled", defaultValue = "false")
+            boolean walEnabled,
+            @ConfigProperty(name = "payments.wal.directory", defaultValue = "/tmp/rinha/wal")
+            Path walDirectory,
+            @ConfigProperty(name = "payments.wal.segment-slots", defaultValue = "1048576")
+            int walSegmentSlots,
+            @ConfigProperty(name = "payments.wal.sync-interval", defaultValue = "10ms")
+            Duration walSyncInterval,
+            @ConfigProperty(name = "payments.wal.snapshot-interval", defaultValue = "1m")
+            Duration snapshotInterval,
+            @ConfigProperty(name = "payments.wal.snapshot-bucket-width", defaultValue = "1ms")
+            Duration snapshotBucketWidth) {
+        if (walEnabled && storage.equals("shared-mapped"))
+            throw new IllegalStateException("The shared-mapped payments storage outlives restarts, replaying the write-ahead log into it would count its payments twice");
+        LOGGER.info("Using '{}' payments storage", storage);
+        Payments payments = switch (storage) {
+            case "in-memory" -> new InMemoryPayments();
+            case "bucketed" -> new BucketedPayments(bucketWidth);
+            case "off-heap" -> new OffHeapPayments(offHeapSegmentSlots);
+            case "striped" -> new StripedPayments();
+            case "sorted" -> new SortedPayments(outOfOrderTolerance);
+            case "shared-mapped" -> new SharedMappedPayments(sharedFile, sharedRegion, sharedRegions, sharedRegionSlots);
+            default -> throw new IllegalArgumentException("Unknown payments storage: " + storage);
+        };
+        if (!walEnabled)
+            return payments;
+        LOGGER.info("Logging payments ahead to '{}'", walDirectory);
+        WriteAheadLoggedPayments logged = new WriteAheadLoggedPayments(payments, new PaymentLog(walDirectory, walSegmentSlots),
+                new PaymentSnapshots(walDirectory), snapshotBucketWidth, snapshotInterval, walSyncInterval);
+        logged.start();
+        return logged;
+    }
+
+    void close(@Disposes Payments payments) {
+        if (payments instanceof WriteAheadLoggedPayments logged)
+            logged.close();
+    }
+}
@@ -0,0 +1,56 @@
+package org.acme.infrastructure;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import org.acme.domain.PaymentsSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes {@link PaymentsSummary} with {@link PaymentJsonCodec}, both for the {@code /payments-summary}
+ * endpoints and for the internal client fetching the peer's summary.
+ */
+@Provider
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class PaymentsSummaryJsonProvider implements MessageBodyReader<PaymentsSummary>, MessageBodyWriter<PaymentsSummary> {
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PaymentsSummary.class;
+    }
+
+    @Override
+    public PaymentsSummary readFrom(Class<PaymentsSummary> type, Type genericType, Annotation[] annotations,
+                                    MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+                                    InputStream entityStream) throws IOException {
+        byte[] body = entityStream.readAllBytes();
+        try {
+            return PaymentJsonCodec.readPaymentsSummary(body, 0, body.length);
+        } catch (IllegalArgumentException e) {
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PaymentsSummary.class;
+    }
+
+    @Override
+    public void writeTo(PaymentsSummary summary, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        entityStream.write(PaymentJsonCodec.write(summary));
+    }
+}
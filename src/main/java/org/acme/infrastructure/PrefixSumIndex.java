@@ -0,0 +1,168 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.RemotePaymentName;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Incrementally maintained per-processor cumulative counts and amount sums over time slots, stored as
+ * segmented Fenwick trees.
+ * <p>
+ * Each segment covers {@link #SEGMENT_SLOTS} consecutive slots and holds one tree per processor and amount scale
+ * actually seen, so sums stay exact without a common scale. A range query is two prefix lookups and a subtraction
+ * per tree in the boundary segments, plus the totals of the segments in between. Updates only use atomic adds,
+ * so concurrent writers never take a lock. Each segment counts the updates started and finished, and a summary of it
+ * is read again while one was in flight, so it never sees an amount without its count. After
+ * {@link #OPTIMISTIC_READS} such attempts, as under sustained writes or with a writer descheduled mid-update, the
+ * summary holds new updates of the segment back and only waits for those in flight.
+ */
+final class PrefixSumIndex {
+
+    static final int SEGMENT_SHIFT = 12;
+    static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    static final int OPTIMISTIC_READS = 64;
+
+    private static final int PROCESSORS = RemotePaymentName.values().length;
+    private static final int SCALES = PackedAmount.MAX_SCALE + 1;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    void add(long slot, int processor, long packedAmount) {
+        this.segments
+                .computeIfAbsent(slot >> SEGMENT_SHIFT, segment -> new Segment())
+                .add((int) (slot & (SEGMENT_SLOTS - 1)), processor, packedAmount);
+    }
+
+    /**
+     * Adds the counts and amounts of every slot in {@code [fromSlot, toSlot]} to the given accumulator.
+     */
+    void summarize(long fromSlot, long toSlot, SummaryAccumulator accumulator) {
+        if (fromSlot > toSlot)
+            return;
+        long firstSegment = fromSlot >> SEGMENT_SHIFT;
+        long lastSegment = toSlot >> SEGMENT_SHIFT;
+        for (var entry : this.segments.subMap(firstSegment, true, lastSegment, true).entrySet()) {
+            long segment = entry.getKey();
+            int from = segment == firstSegment ? (int) (fromSlot & (SEGMENT_SLOTS - 1)) : 0;
+            int to = segment == lastSegment ? (int) (toSlot & (SEGMENT_SLOTS - 1)) : SEGMENT_SLOTS - 1;
+            entry.getValue().summarize(from, to, accumulator);
+        }
+    }
+
+    private static final class Segment {
+
+        private final AtomicReferenceArray<Fenwick> trees = new AtomicReferenceArray<>(PROCESSORS * SCALES);
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong finished = new AtomicLong();
+        // held by a summary that gave up reading optimistically, while excluding tells the writers to wait for it
+        private final ReentrantLock exclusive = new ReentrantLock();
+        private volatile boolean excluding;
+
+        void add(int slot, int processor, long packedAmount) {
+            started.getAndIncrement();
+            while (excluding) {
+                finished.getAndIncrement();
+                exclusive.lock();
+                exclusive.unlock();
+                started.getAndIncrement();
+            }
+            try {
+                tree(processor, PackedAmount.scale(packedAmount)).add(slot, PackedAmount.unscaled(packedAmount));
+            } finally {
+                finished.getAndIncrement();
+            }
+        }
+
+        private Fenwick tree(int processor, int scale) {
+            int index = processor * SCALES + scale;
+            Fenwick tree = trees.get(index);
+            if (tree == null) {
+                Fenwick created = new Fenwick();
+                tree = trees.compareAndExchange(index, null, created);
+                if (tree == null)
+                    tree = created;
+            }
+            return tree;
+        }
+
+        void summarize(int from, int to, SummaryAccumulator accumulator) {
+            long[] counts = new long[trees.length()];
+            long[] amounts = new long[trees.length()];
+            if (!readOptimistically(from, to, counts, amounts))
+                readExclusively(from, to, counts, amounts);
+            for (int index = 0; index < counts.length; index++) {
+                if (counts[index] > 0)
+                    accumulator.add(index / SCALES, counts[index], amounts[index], index % SCALES);
+            }
+        }
+
+        private boolean readOptimistically(int from, int to, long[] counts, long[] amounts) {
+            for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+                // every update started before was finished, and none started until the end of the read
+                long before = finished.get();
+                if (before == started.get()) {
+                    read(from, to, counts, amounts);
+                    if (started.get() == before)
+                        return true;
+                }
+                Thread.onSpinWait();
+            }
+            return false;
+        }
+
+        // a writer either sees excluding and backs off, or had already started and is waited for
+        private void readExclusively(int from, int to, long[] counts, long[] amounts) {
+            exclusive.lock();
+            try {
+                excluding = true;
+                while (finished.get() != started.get())
+                    Thread.yield();
+                read(from, to, counts, amounts);
+            } finally {
+                excluding = false;
+                exclusive.unlock();
+            }
+        }
+
+        private void read(int from, int to, long[] counts, long[] amounts) {
+            for (int index = 0; index < trees.length(); index++) {
+                Fenwick tree = trees.get(index);
+                counts[index] = tree == null ? 0L : tree.counts(to) - tree.counts(from - 1);
+                amounts[index] = tree == null ? 0L : tree.amounts(to) - tree.amounts(from - 1);
+            }
+        }
+    }
+
+    private static final class Fenwick {
+
+        private final AtomicLongArray counts = new AtomicLongArray(SEGMENT_SLOTS + 1);
+        private final AtomicLongArray amounts = new AtomicLongArray(SEGMENT_SLOTS + 1);
+
+        void add(int slot, long unscaledAmount) {
+            for (int i = slot + 1; i <= SEGMENT_SLOTS; i += i & -i) {
+                amounts.getAndAdd(i, unscaledAmount);
+                counts.getAndIncrement(i);
+            }
+        }
+
+        long counts(int slot) {
+            return prefix(counts, slot);
+        }
+
+        long amounts(int slot) {
+            return prefix(amounts, slot);
+        }
+
+        private static long prefix(AtomicLongArray tree, int slot) {
+            long sum = 0;
+            for (int i = slot + 1; i > 0; i -= i & -i) {
+                sum += tree.get(i);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.PoolOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.json.bind.Jsonb;
+import org.acme.domain.DefaultRemotePaymentProcessor;
+import org.acme.domain.FallbackRemotePaymentProcessor;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.RemotePaymentProcessor;
+import org.acme.domain.RemotePaymentProcessors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ApplicationScoped
+public class RemotePaymentProcessorsProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemotePaymentProcessorsProducer.class);
+
+    @Produces
+    @ApplicationScoped
+    public RemotePaymentProcessors remotePaymentProcessors(
+            @RestClient
+            DefaultRemotePaymentProcessor defaultRemotePaymentProcessor,
+            @RestClient
+            FallbackRemotePaymentProcessor fallbackRemotePaymentProcessor,
+            Vertx vertx,
+            Jsonb jsonb,
+            @ConfigProperty(name = "processor.client", defaultValue = "rest-client")
+            String client,
+            @ConfigProperty(name = "default-payment-processor.url")
+            URI defaultUrl,
+            @ConfigProperty(name = "fallback-payment-processor.url")
+            URI fallbackUrl,
+            @ConfigProperty(name = "processor.vertx.pool-size", defaultValue = "32")
+            int poolSize,
+            @ConfigProperty(name = "processor.vertx.pipelining-limit", defaultValue = "1")
+            int pipeliningLimit,
+            @ConfigProperty(name = "processor.vertx.timeout", defaultValue = "5s")
+            Duration timeout) {
+        LOGGER.info("Using '{}' payment processor client", client);
+        Map<RemotePaymentName, RemotePaymentProcessor> processors = new EnumMap<>(RemotePaymentName.class);
+        switch (client) {
+            case "rest-client" -> {
+                processors.put(RemotePaymentName.DEFAULT, defaultRemotePaymentProcessor);
+                processors.put(RemotePaymentName.FALLBACK, fallbackRemotePaymentProcessor);
+            }
+            case "vertx" -> {
+                HttpClient httpClient = vertx.createHttpClient(
+                        new HttpClientOptions()
+                                .setKeepAlive(true)
+                                .setPipelining(pipeliningLimit > 1)
+                                .setPipeliningLimit(pipeliningLimit),
+                        new PoolOptions().setHttp1MaxSize(poolSize));
+                processors.put(RemotePaymentName.DEFAULT, new VertxRemotePaymentProcessor(httpClient, defaultUrl, timeout, jsonb));
+                processors.put(RemotePaymentName.FALLBACK, new VertxRemotePaymentProcessor(httpClient, fallbackUrl, timeout, jsonb));
+            }
+            default -> throw new IllegalArgumentException("Unknown payment processor client: " + client);
+        }
+        return processors::get;
+    }
+}
@@ -0,0 +1,33 @@
+package org.acme.infrastructure;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import org.acme.domain.RemotePaymentRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes the payments sent by the processor REST clients with {@link PaymentJsonCodec}.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class RemotePaymentRequestJsonWriter implements MessageBodyWriter<RemotePaymentRequest> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == RemotePaymentRequest.class;
+    }
+
+    @Override
+    public void writeTo(RemotePaymentRequest request, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        entityStream.write(PaymentJsonCodec.write(request));
+    }
+}
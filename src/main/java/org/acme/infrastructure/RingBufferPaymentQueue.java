@@ -0,0 +1,159 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer/multi-consumer {@link PaymentQueue} over a preallocated ring (Vyukov's bounded
+ * MPMC queue): each slot carries a sequence number telling producers when it is free and consumers when it is
+ * filled, so {@code offer} and {@code poll} are one CAS on the tail or head cursor and never allocate.
+ * <p>
+ * A consumer with nothing to take spins briefly, then yields, then parks. Parking a virtual thread unmounts it from
+ * its carrier, so idle workers cost nothing; a parked consumer registers itself so the next {@code offer} unparks it.
+ * It checks the queue again after registering, so an offer either is seen by that check or sees the registration.
+ */
+public class RingBufferPaymentQueue implements PaymentQueue {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int SPINS = 64;
+    private static final int YIELDS = 8;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<PaymentIntake> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final ConcurrentLinkedQueue<Thread> parked = new ConcurrentLinkedQueue<>();
+
+    public RingBufferPaymentQueue(int capacity) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++)
+            sequences.set(i, i);
+    }
+
+    @Override
+    public boolean offer(PaymentIntake paymentRequest) {
+        Objects.requireNonNull(paymentRequest);
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.setPlain(index, paymentRequest);
+                    // volatile, not release: it must be ordered before the read of the parked consumers below
+                    sequences.set(index, position + 1);
+                    wakeConsumer();
+                    return true;
+                }
+                position = tail.get();
+            } else if (delta < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public PaymentIntake poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - (position + 1);
+            if (delta == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    PaymentIntake paymentRequest = slots.getPlain(index);
+                    slots.setPlain(index, null);
+                    sequences.setRelease(index, position + capacity);
+                    return paymentRequest;
+                }
+                position = head.get();
+            } else if (delta < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    @Override
+    public PaymentIntake take() throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            PaymentIntake paymentRequest = poll();
+            if (paymentRequest != null)
+                return paymentRequest;
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                park();
+            }
+        }
+    }
+
+    private void park() {
+        Thread current = Thread.currentThread();
+        parked.add(current);
+        try {
+            if (isEmpty())
+                LockSupport.park(this);
+        } finally {
+            parked.remove(current);
+        }
+    }
+
+    private void wakeConsumer() {
+        if (parked.isEmpty())
+            return;
+        Thread consumer = parked.poll();
+        if (consumer != null)
+            LockSupport.unpark(consumer);
+    }
+
+    private boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) (position & mask)) - (position + 1) < 0;
+    }
+
+    @Override
+    public int drainTo(Collection<? super PaymentIntake> target, int maxElements) {
+        int drained = 0;
+        PaymentIntake paymentRequest;
+        while (drained < maxElements && (paymentRequest = poll()) != null) {
+            target.add(paymentRequest);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        long used = tail.get() - head.get();
+        return (int) Math.max(0, capacity - used);
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+        }
+    }
+}
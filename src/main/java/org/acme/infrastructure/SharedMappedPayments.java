@@ -0,0 +1,132 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link Payments} in a memory-mapped file shared by the instances of one host, typically on a tmpfs volume. The
+ * file holds one region per instance: a {@value #REGION_HEADER}-byte header with the write cursor, then
+ * {@code regionSlots} {@link PaymentSlots} slots. An instance appends only to its own region, reserving slots with a
+ * compare-and-set on the mapped cursor, and summaries scan every region, so they already include the peer's payments.
+ * <p>
+ * Regions have a fixed capacity: adding past it fails. A purge only clears this instance's region.
+ */
+public class SharedMappedPayments implements Payments {
+
+    public static final int DEFAULT_REGION_SLOTS = 1 << 20;
+
+    static final int REGION_HEADER = 64;
+    private static final int CURSOR = 0;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final int regionSlots;
+    private final MappedByteBuffer[] regions;
+    private final MappedByteBuffer own;
+
+    public SharedMappedPayments(Path file, int region, int regionCount, int regionSlots) {
+        if (regionCount < 1 || region < 0 || region >= regionCount)
+            throw new IllegalArgumentException("Region must be between 0 and " + (regionCount - 1));
+        long regionBytes = REGION_HEADER + (long) regionSlots * PaymentSlots.SLOT_SIZE;
+        if (regionSlots < 1 || regionBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Region slots must be between 1 and " + (Integer.MAX_VALUE - REGION_HEADER) / PaymentSlots.SLOT_SIZE);
+        this.regionSlots = regionSlots;
+        this.regions = map(file, regionCount, regionBytes);
+        this.own = regions[region];
+    }
+
+    private static MappedByteBuffer[] map(Path file, int regionCount, long regionBytes) {
+        try {
+            if (file.getParent() != null)
+                Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer[] regions = new MappedByteBuffer[regionCount];
+                // mapping past the end grows the file; on tmpfs the pages are only allocated once written
+                for (int index = 0; index < regionCount; index++)
+                    regions[index] = channel.map(FileChannel.MapMode.READ_WRITE, index * regionBytes, regionBytes);
+                return regions;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map the shared payments file " + file, e);
+        }
+    }
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        write(reserve(1), payment);
+    }
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+        List<Payment> batch = payments.stream().filter(Objects::nonNull).toList();
+        if (batch.isEmpty())
+            return;
+        long slot = reserve(batch.size());
+        for (Payment payment : batch)
+            write(slot++, payment);
+    }
+
+    // the cursor never moves past the capacity, so a batch that does not fit leaves room for smaller ones
+    private long reserve(int slots) {
+        long slot;
+        do {
+            slot = (long) LONGS.getAcquire(own, CURSOR);
+            if (slot + slots > regionSlots)
+                throw new IllegalStateException("Shared payments region is full (" + regionSlots + " slots)");
+        } while (!LONGS.compareAndSet(own, CURSOR, slot, slot + slots));
+        return slot;
+    }
+
+    private void write(long slot, Payment payment) {
+        PaymentSlots.write(own,
+                REGION_HEADER + (int) slot * PaymentSlots.SLOT_SIZE,
+                PaymentSlots.toUuid(payment.correlationId()),
+                EpochNanos.of(payment.requestedAt()),
+                PackedAmount.pack(payment.amount()),
+                payment.processedBy().ordinal());
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        for (MappedByteBuffer region : regions) {
+            int reserved = (int) Math.min((long) LONGS.getAcquire(region, CURSOR), regionSlots);
+            PaymentSlots.summarize(region.slice(REGION_HEADER, region.capacity() - REGION_HEADER), reserved, fromNanos, toNanos, accumulator);
+        }
+        return accumulator.toPaymentsSummary();
+    }
+
+    @Override
+    public boolean includesPeer() {
+        return regions.length > 1;
+    }
+
+    @Override
+    public void purge() {
+        int reserved = (int) Math.min((long) LONGS.getAcquire(own, CURSOR), regionSlots);
+        ByteBuffer slots = own.slice(REGION_HEADER, own.capacity() - REGION_HEADER);
+        for (int offset = 0, end = reserved * PaymentSlots.SLOT_SIZE; offset < end; offset += PaymentSlots.SLOT_SIZE)
+            PaymentSlots.clear(slots, offset);
+        LONGS.setRelease(own, CURSOR, 0L);
+    }
+}
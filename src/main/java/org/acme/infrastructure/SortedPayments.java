@@ -0,0 +1,214 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Payments} kept sorted by {@code requestedAt}, so a summary binary-searches the first and last payment of
+ * {@code [from, to]} and aggregates the contiguous slice between them without checking any timestamp.
+ * <p>
+ * Payments arrive nearly in order, since they are stamped right before being sent to a processor. Recent payments
+ * wait in a small sorted buffer until they are older than the newest one by more than the out-of-order tolerance,
+ * and only then move to the sorted columns. The rare payment older than the sorted tail goes to a separate unsorted
+ * "late" column that summaries scan linearly.
+ */
+public class SortedPayments implements Payments {
+
+    public static final Duration DEFAULT_OUT_OF_ORDER_TOLERANCE = Duration.ofSeconds(1);
+
+    private final long tolerance;
+
+    private volatile Store store = new Store();
+
+    public SortedPayments(Duration outOfOrderTolerance) {
+        if (outOfOrderTolerance.isNegative())
+            throw new IllegalArgumentException("Out-of-order tolerance must not be negative");
+        this.tolerance = outOfOrderTolerance.toNanos();
+    }
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        Store current = this.store;
+        current.lock.lock();
+        try {
+            insert(current, payment);
+        } finally {
+            current.lock.unlock();
+        }
+    }
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+        Store current = this.store;
+        current.lock.lock();
+        try {
+            for (Payment payment : payments) {
+                if (payment != null)
+                    insert(current, payment);
+            }
+        } finally {
+            current.lock.unlock();
+        }
+    }
+
+    private void insert(Store current, Payment payment) {
+        long requestedAt = EpochNanos.of(payment.requestedAt());
+        long packedAmount = PackedAmount.pack(payment.amount());
+        int processor = payment.processedBy().ordinal();
+        if (current.sorted.size() > 0 && requestedAt < current.sortedTail) {
+            current.late.append(requestedAt, packedAmount, processor);
+            return;
+        }
+        current.pending.insert(requestedAt, packedAmount, processor);
+        long sealBefore = current.pending.newest() - tolerance;
+        while (!current.pending.isEmpty() && current.pending.oldest() <= sealBefore) {
+            current.sortedTail = current.pending.moveOldestTo(current.sorted);
+        }
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        if (fromNanos > toNanos)
+            return accumulator.toPaymentsSummary();
+
+        Store current = this.store;
+        int sortedSize;
+        current.lock.lock();
+        try {
+            // payments only move from pending to sorted under the lock, so both are read consistently
+            sortedSize = current.sorted.size();
+            current.pending.summarize(fromNanos, toNanos, accumulator);
+        } finally {
+            current.lock.unlock();
+        }
+        int first = firstNotBefore(current.sorted, sortedSize, fromNanos);
+        int last = firstAfter(current.sorted, sortedSize, toNanos);
+        current.sorted.summarizeSlice(first, last, accumulator);
+        current.late.summarize(fromNanos, toNanos, accumulator);
+        return accumulator.toPaymentsSummary();
+    }
+
+    @Override
+    public void purge() {
+        this.store = new Store();
+    }
+
+    private static int firstNotBefore(PaymentColumns columns, int size, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (columns.requestedAt(middle) < timestamp)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private static int firstAfter(PaymentColumns columns, int size, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (columns.requestedAt(middle) <= timestamp)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private static final class Store {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PaymentColumns sorted = new PaymentColumns();
+        private final PaymentColumns late = new PaymentColumns();
+        private final Pending pending = new Pending();
+        private long sortedTail = Long.MIN_VALUE;
+    }
+
+    /**
+     * Sorted buffer of the payments still inside the out-of-order tolerance window; guarded by the store lock.
+     */
+    private static final class Pending {
+
+        private long[] requestedAt = new long[64];
+        private long[] amounts = new long[64];
+        private byte[] processors = new byte[64];
+        private int start;
+        private int end;
+
+        boolean isEmpty() {
+            return start == end;
+        }
+
+        long oldest() {
+            return requestedAt[start];
+        }
+
+        long newest() {
+            return requestedAt[end - 1];
+        }
+
+        void insert(long timestamp, long packedAmount, int processor) {
+            if (end == requestedAt.length)
+                makeRoom();
+            int position = end;
+            while (position > start && requestedAt[position - 1] > timestamp) {
+                position--;
+            }
+            int moved = end - position;
+            if (moved > 0) {
+                System.arraycopy(requestedAt, position, requestedAt, position + 1, moved);
+                System.arraycopy(amounts, position, amounts, position + 1, moved);
+                System.arraycopy(processors, position, processors, position + 1, moved);
+            }
+            requestedAt[position] = timestamp;
+            amounts[position] = packedAmount;
+            processors[position] = (byte) processor;
+            end++;
+        }
+
+        long moveOldestTo(PaymentColumns columns) {
+            long timestamp = requestedAt[start];
+            columns.append(timestamp, amounts[start], processors[start]);
+            start++;
+            return timestamp;
+        }
+
+        void summarize(long from, long to, SummaryAccumulator accumulator) {
+            for (int i = start; i < end; i++) {
+                if (requestedAt[i] >= from && requestedAt[i] <= to)
+                    accumulator.add(processors[i], amounts[i]);
+            }
+        }
+
+        private void makeRoom() {
+            int size = end - start;
+            if (size * 2 > requestedAt.length) {
+                requestedAt = Arrays.copyOfRange(requestedAt, start, start + size * 2);
+                amounts = Arrays.copyOfRange(amounts, start, start + size * 2);
+                processors = Arrays.copyOfRange(processors, start, start + size * 2);
+            } else {
+                System.arraycopy(requestedAt, start, requestedAt, 0, size);
+                System.arraycopy(amounts, start, amounts, 0, size);
+                System.arraycopy(processors, start, processors, 0, size);
+            }
+            start = 0;
+            end = size;
+        }
+    }
+}
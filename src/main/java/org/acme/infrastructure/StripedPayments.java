@@ -0,0 +1,77 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+
+import java.time.Instant;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link Payments} where every writer thread appends into its own {@link PaymentColumns} stripe, so adds never
+ * contend with each other: no shared tail, no CAS and no per-payment node allocation. Summaries merge every stripe
+ * at read time.
+ * <p>
+ * A stripe is created the first time a thread adds a payment and lives until the next purge, so this store is meant
+ * for long-lived writers such as the {@code PaymentWorker} threads.
+ */
+public class StripedPayments implements Payments {
+
+    private final ThreadLocal<Stripe> stripe = new ThreadLocal<>();
+
+    private volatile Generation generation = new Generation();
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        currentStripe().columns.append(
+                EpochNanos.of(payment.requestedAt()),
+                PackedAmount.pack(payment.amount()),
+                payment.processedBy().ordinal());
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        long fromNanos = EpochNanos.from(from);
+        long toNanos = EpochNanos.to(to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        for (Stripe stripe : this.generation.stripes) {
+            stripe.columns.summarize(fromNanos, toNanos, accumulator);
+        }
+        return accumulator.toPaymentsSummary();
+    }
+
+    @Override
+    public void purge() {
+        this.generation = new Generation();
+    }
+
+    private Stripe currentStripe() {
+        Generation current = this.generation;
+        Stripe owned = this.stripe.get();
+        if (owned == null || owned.generation != current) {
+            owned = current.register();
+            this.stripe.set(owned);
+        }
+        return owned;
+    }
+
+    private static final class Generation {
+
+        private final CopyOnWriteArrayList<Stripe> stripes = new CopyOnWriteArrayList<>();
+
+        Stripe register() {
+            Stripe stripe = new Stripe(this);
+            stripes.add(stripe);
+            return stripe;
+        }
+    }
+
+    private record Stripe(Generation generation, PaymentColumns columns) {
+
+        Stripe(Generation generation) {
+            this(generation, new PaymentColumns());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable, single-threaded accumulator of per-processor counts and amount sums kept as primitive {@code long}s.
+ * <p>
+ * Sums follow {@link BigDecimal#add} scale rules: the running sum is kept at the largest scale seen so far,
+ * so the resulting {@link PaymentSummary} is equal to the one a {@code BigDecimal} reduction would produce.
+ */
+final class SummaryAccumulator {
+
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private static final long[] POWERS_OF_TEN = new long[PackedAmount.MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    private final long[] counts = new long[PROCESSORS.length];
+    private final long[] unscaledSums = new long[PROCESSORS.length];
+    private final int[] scales = new int[PROCESSORS.length];
+
+    void add(int processor, long packedAmount) {
+        add(processor, 1L, PackedAmount.unscaled(packedAmount), PackedAmount.scale(packedAmount));
+    }
+
+    void add(int processor, long count, long unscaledSum, int scale) {
+        counts[processor] += count;
+        int currentScale = scales[processor];
+        if (scale > currentScale) {
+            unscaledSums[processor] = Math.multiplyExact(unscaledSums[processor], POWERS_OF_TEN[scale - currentScale]);
+            scales[processor] = scale;
+        } else if (scale < currentScale) {
+            unscaledSum = Math.multiplyExact(unscaledSum, POWERS_OF_TEN[currentScale - scale]);
+        }
+        unscaledSums[processor] = Math.addExact(unscaledSums[processor], unscaledSum);
+    }
+
+    SummaryAccumulator merge(SummaryAccumulator other) {
+        for (int processor = 0; processor < PROCESSORS.length; processor++) {
+            if (other.counts[processor] > 0)
+                add(processor, other.counts[processor], other.unscaledSums[processor], other.scales[processor]);
+        }
+        return this;
+    }
+
+    long count(int processor) {
+        return counts[processor];
+    }
+
+    long unscaledSum(int processor) {
+        return unscaledSums[processor];
+    }
+
+    int scale(int processor) {
+        return scales[processor];
+    }
+
+    PaymentsSummary toPaymentsSummary() {
+        return PaymentsSummary.of(
+                toPaymentSummary(RemotePaymentName.DEFAULT.ordinal()),
+                toPaymentSummary(RemotePaymentName.FALLBACK.ordinal()));
+    }
+
+    private PaymentSummary toPaymentSummary(int processor) {
+        if (counts[processor] == 0)
+            return PaymentSummary.ZERO;
+        return new PaymentSummary(counts[processor], BigDecimal.valueOf(unscaledSums[processor], scales[processor]));
+    }
+}
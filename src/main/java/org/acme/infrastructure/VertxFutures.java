@@ -0,0 +1,18 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Future;
+
+/**
+ * Blocks a virtual thread on a Vert.x {@link Future}, for the clients that implement the blocking REST client
+ * interfaces over a raw Vert.x client.
+ */
+final class VertxFutures {
+
+    private VertxFutures() {
+    }
+
+    static <T> T await(Future<T> future) {
+        // CompletionException is a RuntimeException, like the REST client's failures
+        return future.toCompletionStage().toCompletableFuture().join();
+    }
+}
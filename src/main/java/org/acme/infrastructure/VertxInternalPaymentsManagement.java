@@ -0,0 +1,94 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import jakarta.json.bind.Jsonb;
+import org.acme.domain.InternalPaymentsManagement;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.ProcessorsHealth;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * {@link InternalPaymentsManagement} on a Vert.x {@link HttpClient} connected to the peer's HTTP server through
+ * {@code server}, a Unix domain socket when both instances share a host. Non-2xx answers fail the call, like
+ * transport errors, with a {@link RuntimeException}.
+ */
+public class VertxInternalPaymentsManagement implements InternalPaymentsManagement {
+
+    private final HttpClient client;
+    private final SocketAddress server;
+    private final long timeout;
+    private final Jsonb jsonb;
+
+    public VertxInternalPaymentsManagement(HttpClient client, SocketAddress server, Duration timeout, Jsonb jsonb) {
+        this.client = client;
+        this.server = server;
+        this.timeout = timeout.toMillis();
+        this.jsonb = jsonb;
+    }
+
+    @Override
+    public PaymentsSummary getSummary(String fromStr, String toStr) {
+        Buffer body = VertxFutures.await(call(HttpMethod.GET, "/internal/payments-summary" + query(fromStr, toStr), null));
+        return PaymentJsonCodec.readPaymentsSummary(body.getBytes(), 0, body.length());
+    }
+
+    @Override
+    public void purgeInternalPayments() {
+        VertxFutures.await(call(HttpMethod.POST, "/internal/purge-payments", null));
+    }
+
+    @Override
+    public void updateProcessorsHealth(ProcessorsHealth processorsHealth) {
+        VertxFutures.await(call(HttpMethod.POST, "/internal/processors-health", Buffer.buffer(jsonb.toJson(processorsHealth))));
+    }
+
+    @Override
+    public String healthReadyCheck() {
+        return VertxFutures.await(call(HttpMethod.GET, "/q/health/ready", null)).toString();
+    }
+
+    private Future<Buffer> call(HttpMethod method, String uri, Buffer body) {
+        RequestOptions options = new RequestOptions()
+                .setServer(server)
+                .setHost("localhost")
+                .setMethod(method)
+                .setURI(uri)
+                .setIdleTimeout(timeout);
+        if (body != null)
+            options.putHeader(HttpHeaders.CONTENT_TYPE, HttpHeaders.createOptimized("application/json"));
+        return client.request(options)
+                .compose(request -> body == null ? request.send() : request.send(body))
+                .compose(response -> response.body().compose(answer -> successful(response)
+                        ? Future.succeededFuture(answer)
+                        : Future.failedFuture(new IllegalStateException(method + " " + uri + " answered " + response.statusCode()))));
+    }
+
+    private static boolean successful(HttpClientResponse response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private static String query(String from, String to) {
+        StringBuilder query = new StringBuilder();
+        append(query, "from", from);
+        append(query, "to", to);
+        return query.toString();
+    }
+
+    private static void append(StringBuilder query, String name, String value) {
+        if (value == null || value.isEmpty())
+            return;
+        query.append(query.isEmpty() ? '?' : '&')
+                .append(name).append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,218 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.parsetools.RecordParser;
+import org.acme.domain.Payment;
+import org.acme.domain.PaymentReplicationChannel;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.ReplicationBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * {@link PaymentReplicationChannel} over a single persistent Vert.x connection to the peer, TCP or a Unix domain
+ * socket. A batch travels as one length-prefixed binary frame: origin, generation, sequence, count, then 17 bytes per
+ * payment (processor, epoch nanos of {@code requestedAt}, {@link PackedAmount}). The correlation id is not sent,
+ * summaries do not need it. The peer stores each frame off the event loop and answers it with its sequence once stored,
+ * and applies a sequence it has already seen from that origin only once. A frame it failed to store is not answered:
+ * the connection is closed, so the sender sends it again.
+ */
+public class VertxPaymentReplicationChannel implements PaymentReplicationChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VertxPaymentReplicationChannel.class);
+    private static final int HEADER_BYTES = 3 * Long.BYTES + Integer.BYTES;
+    private static final int PAYMENT_BYTES = 1 + Long.BYTES + Long.BYTES;
+    private static final RemotePaymentName[] PROCESSORS = RemotePaymentName.values();
+
+    private final Vertx vertx;
+    private final SocketAddress listenAddress;
+    private final SocketAddress peerAddress;
+    private final Duration timeout;
+    private final NetClient client;
+    // the generation and sequence of the last batch applied, by origin
+    private final Map<Long, long[]> applied = new HashMap<>();
+    private volatile NetSocket socket;
+    private volatile CompletableFuture<Long> acknowledgement = new CompletableFuture<>();
+
+    public VertxPaymentReplicationChannel(Vertx vertx, SocketAddress listenAddress, SocketAddress peerAddress, Duration timeout) {
+        this.vertx = vertx;
+        this.listenAddress = listenAddress;
+        this.peerAddress = peerAddress;
+        this.timeout = timeout;
+        this.client = vertx.createNetClient(new NetClientOptions()
+                .setConnectTimeout((int) timeout.toMillis())
+                .setTcpNoDelay(true));
+    }
+
+    @Override
+    public void listen(Consumer<List<Payment>> receiver) {
+        if (listenAddress.isDomainSocket())
+            deleteStaleSocket(Path.of(listenAddress.path()));
+        await(vertx.createNetServer()
+                .connectHandler(connection -> accept(connection, receiver))
+                .listen(listenAddress));
+    }
+
+    @Override
+    public void send(ReplicationBatch batch) {
+        CompletableFuture<Long> acknowledged = new CompletableFuture<>();
+        acknowledgement = acknowledged;
+        try {
+            connection().write(encode(batch));
+            long sequence = acknowledged.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (sequence != batch.sequence())
+                throw new IllegalStateException("Peer acknowledged batch " + sequence + " instead of " + batch.sequence());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            disconnect();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            disconnect();
+            throw new IllegalStateException("Batch " + batch.sequence() + " not acknowledged by the peer", e);
+        }
+    }
+
+    private NetSocket connection() {
+        NetSocket current = socket;
+        if (current != null)
+            return current;
+        NetSocket connected = await(client.connect(peerAddress));
+        connected.handler(RecordParser.newFixed(Long.BYTES, ack -> {
+            if (socket == connected)
+                acknowledgement.complete(ack.getLong(0));
+        }));
+        connected.closeHandler(ignored -> {
+            if (socket == connected) {
+                socket = null;
+                acknowledgement.completeExceptionally(new IllegalStateException("Connection to the peer closed"));
+            }
+        });
+        socket = connected;
+        return connected;
+    }
+
+    private void disconnect() {
+        NetSocket current = socket;
+        socket = null;
+        if (current != null)
+            current.close();
+    }
+
+    // a socket file left by a previous run makes the bind fail
+    private static void deleteStaleSocket(Path socket) {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void accept(NetSocket connection, Consumer<List<Payment>> receiver) {
+        RecordParser parser = RecordParser.newFixed(Integer.BYTES);
+        parser.handler(new Handler<>() {
+            private int frameLength = -1;
+
+            @Override
+            public void handle(Buffer buffer) {
+                if (frameLength == -1) {
+                    frameLength = buffer.getInt(0);
+                    parser.fixedSizeMode(frameLength);
+                    return;
+                }
+                frameLength = -1;
+                parser.fixedSizeMode(Integer.BYTES);
+                ReplicationBatch batch = decode(buffer);
+                // storing takes the store's locks and may map a log segment, which must not block the event loop;
+                // ordered, so the frames of a connection are stored one after the other
+                vertx.executeBlocking(() -> {
+                            apply(batch, receiver);
+                            return batch.sequence();
+                        })
+                        .onSuccess(sequence -> connection.write(Buffer.buffer(Long.BYTES).appendLong(sequence)))
+                        .onFailure(e -> {
+                            LOGGER.warn("Error storing {} replicated payments, closing the connection: {}",
+                                    batch.payments().size(), e.getMessage(), e);
+                            connection.close();
+                        });
+            }
+        });
+        connection.handler(parser);
+    }
+
+    private synchronized void apply(ReplicationBatch batch, Consumer<List<Payment>> receiver) {
+        long[] last = applied.get(batch.origin());
+        // sent again, or taken before a purge of the sender that a later batch already followed
+        if (last != null && (batch.generation() < last[0] || batch.sequence() <= last[1]))
+            return;
+        receiver.accept(batch.payments());
+        applied.put(batch.origin(), new long[]{batch.generation(), batch.sequence()});
+    }
+
+    static Buffer encode(ReplicationBatch batch) {
+        List<Payment> payments = batch.payments();
+        int frameLength = HEADER_BYTES + payments.size() * PAYMENT_BYTES;
+        Buffer buffer = Buffer.buffer(Integer.BYTES + frameLength)
+                .appendInt(frameLength)
+                .appendLong(batch.origin())
+                .appendLong(batch.generation())
+                .appendLong(batch.sequence())
+                .appendInt(payments.size());
+        for (Payment payment : payments) {
+            buffer.appendByte((byte) payment.processedBy().ordinal())
+                    .appendLong(EpochNanos.of(payment.requestedAt()))
+                    .appendLong(PackedAmount.pack(payment.amount()));
+        }
+        return buffer;
+    }
+
+    /**
+     * Reads a frame without its length prefix.
+     */
+    static ReplicationBatch decode(Buffer frame) {
+        long origin = frame.getLong(0);
+        long generation = frame.getLong(Long.BYTES);
+        long sequence = frame.getLong(2 * Long.BYTES);
+        int count = frame.getInt(3 * Long.BYTES);
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0, position = HEADER_BYTES; i < count; i++, position += PAYMENT_BYTES) {
+            payments.add(Payment.of(null,
+                    PROCESSORS[frame.getByte(position)],
+                    PackedAmount.unpack(frame.getLong(position + 1 + Long.BYTES)),
+                    EpochNanos.toInstant(frame.getLong(position + 1))));
+        }
+        return new ReplicationBatch(origin, generation, sequence, payments);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.toCompletionStage().toCompletableFuture().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
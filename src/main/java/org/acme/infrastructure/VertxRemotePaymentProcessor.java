@@ -0,0 +1,66 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import jakarta.json.bind.Jsonb;
+import org.acme.domain.RemotePaymentProcessor;
+import org.acme.domain.RemotePaymentRequest;
+import org.acme.domain.RemotePaymentResponse;
+import org.acme.domain.ServiceHealth;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * {@link RemotePaymentProcessor} on a pooled Vert.x {@link HttpClient}. The payment body is written by
+ * {@link PaymentJsonCodec}, and only the status code of the answer is read: its body is discarded
+ * unparsed. Calls block the calling (virtual) thread until the event loop completes them.
+ */
+public class VertxRemotePaymentProcessor implements RemotePaymentProcessor {
+
+    private final HttpClient client;
+    private final RequestOptions payments;
+    private final RequestOptions serviceHealth;
+    private final Jsonb jsonb;
+
+    public VertxRemotePaymentProcessor(HttpClient client, URI uri, Duration timeout, Jsonb jsonb) {
+        this.client = client;
+        this.jsonb = jsonb;
+        String base = uri.getPath() == null ? "" : uri.getPath().replaceAll("/+$", "");
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+        this.payments = new RequestOptions()
+                .setMethod(HttpMethod.POST)
+                .setHost(uri.getHost())
+                .setPort(port)
+                .setURI(base + "/payments")
+                .setIdleTimeout(timeout.toMillis())
+                .putHeader(HttpHeaders.CONTENT_TYPE, HttpHeaders.createOptimized("application/json"));
+        this.serviceHealth = new RequestOptions()
+                .setMethod(HttpMethod.GET)
+                .setHost(uri.getHost())
+                .setPort(port)
+                .setURI(base + "/payments/service-health")
+                .setIdleTimeout(timeout.toMillis());
+    }
+
+    @Override
+    public RestResponse<RemotePaymentResponse> processPayment(RemotePaymentRequest request) {
+        int status = VertxFutures.await(client.request(payments)
+                .compose(httpRequest -> httpRequest.send(Buffer.buffer(PaymentJsonCodec.write(request))))
+                .compose(response -> response.end().map(ignored -> response.statusCode())));
+        return RestResponse.status(status);
+    }
+
+    @Override
+    public RestResponse<ServiceHealth> serviceHealth() {
+        return VertxFutures.await(client.request(serviceHealth)
+                .compose(httpRequest -> httpRequest.send())
+                .compose(response -> response.body().map(body -> response.statusCode() == 200
+                        ? RestResponse.ok(jsonb.fromJson(body.toString(), ServiceHealth.class))
+                        : RestResponse.<ServiceHealth>status(response.statusCode()))));
+    }
+}
@@ -0,0 +1,199 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.Payments;
+import org.acme.domain.PaymentsSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes every payment to a {@link PaymentLog} before storing it in the wrapped {@link Payments}, and rebuilds that
+ * store from the log when created, so a restarted instance still reports the payments the processors acknowledged.
+ * Once {@link #start() started}, the log is forced to the device every {@code syncInterval} by a background thread
+ * (group commit), until {@link #close() closed}.
+ * <p>
+ * Every {@code snapshotInterval}, the sealed log segments are compacted into the {@link PaymentSnapshots} aggregates
+ * and deleted, so a restart loads the snapshot and only replays the log tail. Summaries report the payments restored
+ * from the snapshot at the resolution of its buckets, see {@link PaymentAggregates}.
+ */
+public class WriteAheadLoggedPayments implements Payments, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLoggedPayments.class);
+    private static final int REPLAY_BATCH = 4096;
+
+    private final Payments payments;
+    private final PaymentLog log;
+    private final PaymentSnapshots snapshots;
+    private final long bucketWidth;
+    private final Duration snapshotInterval;
+    private final Duration syncInterval;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // shared by adds, so none lands between the purge of the log and that of the store
+    private final ReentrantReadWriteLock purgeLock = new ReentrantReadWriteLock();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private final List<Thread> maintenance = new ArrayList<>();
+    // payments restored from the snapshot at startup, also counted by summaries
+    private volatile PaymentAggregates restored;
+    // what the next snapshot is built on, only touched under snapshotLock
+    private PaymentSnapshots.Snapshot compacted;
+
+    public WriteAheadLoggedPayments(Payments payments, PaymentLog log, PaymentSnapshots snapshots,
+                                    Duration bucketWidth, Duration snapshotInterval, Duration syncInterval) {
+        this.payments = payments;
+        this.log = log;
+        this.snapshots = snapshots;
+        this.bucketWidth = bucketWidth.toNanos();
+        this.snapshotInterval = snapshotInterval;
+        this.syncInterval = syncInterval;
+        this.compacted = snapshots.load().orElseGet(this::empty);
+        this.restored = compacted.aggregates().copy();
+        LOGGER.info("Restored {} buckets from the snapshot and replayed {} payments from the write-ahead log",
+                restored.buckets(), replay(compacted.segments()));
+    }
+
+    /**
+     * Starts the background sync and compaction, if their interval is not zero.
+     */
+    public void start() {
+        if (!syncInterval.isZero())
+            maintenance.add(Thread.startVirtualThread(() -> every(syncInterval, log::sync)));
+        if (!snapshotInterval.isZero())
+            maintenance.add(Thread.startVirtualThread(() -> every(snapshotInterval, this::snapshot)));
+    }
+
+    /**
+     * Stops the background sync and compaction, waiting for a pass under way, then forces the log a last time.
+     */
+    @Override
+    public void close() {
+        closed.countDown();
+        try {
+            for (Thread thread : maintenance)
+                thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.sync();
+    }
+
+    private PaymentSnapshots.Snapshot empty() {
+        // a snapshot keeps the bucket width it was written with
+        return new PaymentSnapshots.Snapshot(0L, new PaymentAggregates(bucketWidth));
+    }
+
+    private long replay(long fromSegment) {
+        List<Payment> batch = new ArrayList<>(REPLAY_BATCH);
+        long[] replayed = {0L};
+        log.replay(fromSegment, payment -> {
+            batch.add(payment);
+            if (batch.size() == REPLAY_BATCH) {
+                payments.addAll(batch);
+                replayed[0] += batch.size();
+                batch.clear();
+            }
+        });
+        payments.addAll(batch);
+        return replayed[0] + batch.size();
+    }
+
+    /**
+     * Folds the sealed segments not compacted yet into a new snapshot, then deletes them from the log.
+     */
+    void snapshot() {
+        snapshotLock.lock();
+        try {
+            long sealed = log.sealedSegments();
+            if (sealed <= compacted.segments())
+                return;
+            PaymentAggregates aggregates = compacted.aggregates().copy();
+            log.read(compacted.segments(), sealed, aggregates::add);
+            PaymentSnapshots.Snapshot snapshot = new PaymentSnapshots.Snapshot(sealed, aggregates);
+            snapshots.save(snapshot);
+            compacted = snapshot;
+            log.truncate(sealed);
+            LOGGER.debug("Compacted the write-ahead log up to segment {} into {} buckets", sealed, aggregates.buckets());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void every(Duration interval, Runnable task) {
+        try {
+            // waits on the latch rather than sleeping: an interrupt would abort a snapshot being written
+            while (!closed.await(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error maintaining the write-ahead log: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void add(Payment payment) {
+        if (payment == null)
+            return;
+        purgeLock.readLock().lock();
+        try {
+            log.append(payment);
+            payments.add(payment);
+        } finally {
+            purgeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+        purgeLock.readLock().lock();
+        try {
+            log.appendAll(payments);
+            this.payments.addAll(payments);
+        } finally {
+            purgeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void purge() {
+        purgeLock.writeLock().lock();
+        snapshotLock.lock();
+        try {
+            log.purge();
+            snapshots.purge();
+            compacted = empty();
+            restored = compacted.aggregates().copy();
+            payments.purge();
+        } finally {
+            snapshotLock.unlock();
+            purgeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public PaymentsSummary getSummary(Instant from, Instant to) {
+        PaymentAggregates current = this.restored;
+        if (current.buckets() == 0)
+            return payments.getSummary(from, to);
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        current.summarize(EpochNanos.from(from), EpochNanos.to(to), accumulator);
+        return accumulator.toPaymentsSummary().add(payments.getSummary(from, to));
+    }
+
+    @Override
+    public boolean includesPeer() {
+        return payments.includesPeer();
+    }
+}
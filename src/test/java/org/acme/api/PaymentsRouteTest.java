@@ -0,0 +1,122 @@
+package org.acme.api;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+import org.acme.domain.PaymentWorker;
+import org.acme.domain.RawPaymentRequest;
+import org.acme.infrastructure.LinkedPaymentQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentsRouteTest {
+
+    private static final String BODY = "{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":19.90}";
+
+    private Vertx vertx;
+    private LinkedPaymentQueue queue;
+    private HttpClient client;
+    private int port;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        queue = new LinkedPaymentQueue(1);
+        listen(queue, "linked");
+    }
+
+    private void listen(PaymentQueue paymentQueue, String workerQueue) throws Exception {
+        // never started, so whatever is accepted stays queued
+        PaymentWorker worker = new PaymentWorker(null, null, paymentQueue, null, null, 1, 1);
+        Router router = Router.router(vertx);
+        new PaymentsRoute(worker, "event-loop", workerQueue, 128).register(router);
+        HttpServer server = vertx.createHttpServer()
+                .requestHandler(router)
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        port = server.actualPort();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private int post(String body) throws Exception {
+        return client.request(HttpMethod.POST, port, "localhost", "/payments")
+                .compose(request -> request.send(body))
+                .map(response -> response.statusCode())
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should queue the raw body with 201, then answer 429 once the queue is full")
+    void shouldAnswerCreatedThenTooManyRequests() throws Exception {
+        assertThat(post(BODY)).isEqualTo(201);
+        assertThat(post(BODY)).isEqualTo(429);
+
+        PaymentIntake queued = queue.poll();
+        assertThat(queued).isInstanceOf(RawPaymentRequest.class);
+        assertThat(new String(((RawPaymentRequest) queued).body(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should answer 413 to a body over the limit without queueing it")
+    void shouldRejectOversizedBody() throws Exception {
+        assertThat(post("{\"correlationId\":\"" + "a".repeat(200) + "\",\"amount\":19.90}")).isEqualTo(413);
+
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should answer a request the queue fails to take: 413 for one it cannot hold, 503 otherwise")
+    void shouldAnswerQueueFailures() throws Exception {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        listen(new LinkedPaymentQueue(1) {
+            @Override
+            public boolean offer(PaymentIntake paymentRequest) {
+                throw failure.get();
+            }
+        }, "linked");
+
+        failure.set(new IllegalArgumentException("too large"));
+        assertThat(post(BODY)).isEqualTo(413);
+        failure.set(new UncheckedIOException(new IOException("disk full")));
+        assertThat(post(BODY)).isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("Should queue from a worker thread, not the event loop, with the durable queue")
+    void shouldQueueOffEventLoopWhenDurable() throws Exception {
+        AtomicBoolean onEventLoop = new AtomicBoolean(true);
+        listen(new LinkedPaymentQueue(1) {
+            @Override
+            public boolean offer(PaymentIntake paymentRequest) {
+                onEventLoop.set(Context.isOnEventLoopThread());
+                return super.offer(paymentRequest);
+            }
+        }, "durable");
+
+        assertThat(post(BODY)).isEqualTo(201);
+        assertThat(onEventLoop).isFalse();
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.acme.domain;
+
+import org.acme.domain.CircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(10, 4, 0.5, OPEN_DURATION, clock::get,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test
+    @DisplayName("Should stay closed below the minimum number of calls")
+    void shouldStayClosedBelowMinimumCalls() {
+        IntStream.range(0, 3).forEach(i -> breaker.onFailure());
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should open when the failure rate reaches the threshold")
+    void shouldOpenAtFailureRateThreshold() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    @DisplayName("Should only count the calls inside the sliding window")
+    void shouldSlideWindow() {
+        breaker = new CircuitBreaker(4, 4, 0.5, OPEN_DURATION, clock::get, (from, to) -> transitions.add(from + "->" + to));
+
+        breaker.onFailure();
+        IntStream.range(0, 4).forEach(i -> breaker.onSuccess());
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should let a single probe through after the open duration and close on success")
+    void shouldCloseAfterSuccessfulProbe() {
+        IntStream.range(0, 4).forEach(i -> breaker.onFailure());
+        clock.addAndGet(OPEN_DURATION - 1);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.incrementAndGet();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    @DisplayName("Should open again when the probe fails")
+    void shouldReopenAfterFailedProbe() {
+        IntStream.range(0, 4).forEach(i -> breaker.onFailure());
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ignore outcomes of calls started before the breaker opened")
+    void shouldIgnoreLateOutcomesWhileOpen() {
+        IntStream.range(0, 4).forEach(i -> breaker.onFailure());
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should not take the late outcome of a call permitted while closed for the probe's")
+    void shouldIgnoreOutcomeOfEarlierGeneration() {
+        long beforeOpening = breaker.acquire();
+        IntStream.range(0, 4).forEach(i -> breaker.onFailure());
+        clock.addAndGet(OPEN_DURATION);
+        long probe = breaker.acquire();
+
+        breaker.onSuccess(beforeOpening);
+
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onFailure(probe);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+    }
+
+    @Test
+    @DisplayName("Should reject a call while open")
+    void shouldRejectWhileOpen() {
+        IntStream.range(0, 4).forEach(i -> breaker.onFailure());
+
+        assertThat(breaker.acquire()).isEqualTo(CircuitBreaker.REJECTED);
+    }
+}
@@ -0,0 +1,101 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("Should grow a saturated limit on fast successes, up to the max")
+    void shouldGrowSaturatedLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 4, 2.0, 0.5);
+
+        for (int round = 0; round < 50; round++) {
+            int slots = limiter.limit();
+            IntStream.range(0, slots).forEach(i -> limiter.acquire());
+            IntStream.range(0, slots).forEach(i -> limiter.release(10 * MILLIS, false));
+        }
+
+        assertThat(limiter.limit()).isEqualTo(4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not grow a limit that is not in use")
+    void shouldNotGrowUnusedLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 4, 2.0, 0.5);
+
+        IntStream.range(0, 50).forEach(i -> {
+            limiter.acquire();
+            limiter.release(10 * MILLIS, false);
+        });
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit on failures, down to the min")
+    void shouldCutLimitOnFailures() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 4, 2.0, 0.5);
+
+        limiter.acquire();
+        limiter.release(10 * MILLIS, true);
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        IntStream.range(0, 10).forEach(i -> limiter.call(() -> 500, status -> status >= 500));
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when latency rises well above the average")
+    void shouldCutLimitOnLatencySpike() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 4, 2.0, 0.5);
+        limiter.acquire();
+        limiter.release(10 * MILLIS, false);
+
+        limiter.acquire();
+        limiter.release(15 * MILLIS, false);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        limiter.acquire();
+        limiter.release(100 * MILLIS, false);
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should count a call that throws as failed and release its slot")
+    void shouldReleaseSlotWhenCallThrows() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 4, 2.0, 0.5);
+
+        assertThatThrownBy(() -> limiter.call(() -> {
+            throw new IllegalStateException("connection refused");
+        }, result -> false)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should make callers over the limit wait for a free slot")
+    void shouldWaitForFreeSlot() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 2.0, 0.5);
+        limiter.acquire();
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(limiter::acquire);
+
+        assertThatThrownBy(() -> waiting.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        limiter.release(10 * MILLIS, false);
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,147 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public interface PaymentQueueTests {
+
+    static NewPaymentRequest createRequest(int index) {
+        return new NewPaymentRequest("corr-" + index, BigDecimal.valueOf(19.90));
+    }
+
+    /**
+     * A queue holding exactly {@code capacity} requests.
+     */
+    PaymentQueue createQueue(int capacity);
+
+    @DisplayName("TCK PaymentQueue")
+    interface AllTests extends PaymentQueueTests {
+
+        @Test
+        @DisplayName("Should hand out requests in FIFO order")
+        default void shouldHandOutRequestsInFifoOrder() throws InterruptedException {
+            PaymentQueue queue = createQueue(8);
+
+            queue.offer(createRequest(1));
+            queue.offer(createRequest(2));
+            queue.offer(createRequest(3));
+
+            assertThat(queue.take()).isEqualTo(createRequest(1));
+            assertThat(queue.poll()).isEqualTo(createRequest(2));
+            assertThat(queue.take()).isEqualTo(createRequest(3));
+            assertThat(queue.poll()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject requests beyond capacity")
+        default void shouldRejectRequestsBeyondCapacity() {
+            PaymentQueue queue = createQueue(4);
+
+            IntStream.range(0, 4).forEach(i -> assertThat(queue.offer(createRequest(i))).isTrue());
+
+            assertThat(queue.offer(createRequest(4))).isFalse();
+            assertThat(queue.remainingCapacity()).isZero();
+            assertThat(queue.poll()).isEqualTo(createRequest(0));
+            assertThat(queue.offer(createRequest(4))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should drain at most the requested number of requests")
+        default void shouldDrainAtMostRequestedNumber() {
+            PaymentQueue queue = createQueue(8);
+            IntStream.range(0, 5).forEach(i -> queue.offer(createRequest(i)));
+
+            List<PaymentIntake> drained = new ArrayList<>();
+
+            assertThat(queue.drainTo(drained, 3)).isEqualTo(3);
+            assertThat(drained).containsExactly(createRequest(0), createRequest(1), createRequest(2));
+            assertThat(queue.drainTo(drained, 10)).isEqualTo(2);
+            assertThat(queue.drainTo(drained, 10)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should clear pending requests")
+        default void shouldClearPendingRequests() {
+            PaymentQueue queue = createQueue(8);
+            IntStream.range(0, 5).forEach(i -> queue.offer(createRequest(i)));
+
+            queue.clear();
+
+            assertThat(queue.poll()).isNull();
+            assertThat(queue.remainingCapacity()).isEqualTo(8);
+        }
+
+        @Test
+        @DisplayName("Should wake a waiting consumer when a request arrives")
+        default void shouldWakeWaitingConsumer() throws Exception {
+            PaymentQueue queue = createQueue(8);
+            CompletableFuture<PaymentIntake> taken = new CompletableFuture<>();
+            Thread consumer = Thread.startVirtualThread(() -> {
+                try {
+                    taken.complete(queue.take());
+                } catch (InterruptedException e) {
+                    taken.completeExceptionally(e);
+                }
+            });
+
+            Thread.sleep(50);
+            queue.offer(createRequest(1));
+
+            assertThat(taken.get(5, TimeUnit.SECONDS)).isEqualTo(createRequest(1));
+            consumer.join();
+        }
+
+        @Test
+        @DisplayName("Should deliver every request exactly once with concurrent producers and consumers")
+        default void shouldDeliverEveryRequestExactlyOnce() throws Exception {
+            PaymentQueue queue = createQueue(64);
+            int producers = 4;
+            int perProducer = 10_000;
+            Set<String> delivered = ConcurrentHashMap.newKeySet();
+            AtomicInteger duplicates = new AtomicInteger();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<CompletableFuture<Void>> consumers = IntStream.range(0, 4)
+                        .mapToObj(c -> CompletableFuture.runAsync(() -> {
+                            try {
+                                for (int i = 0; i < perProducer; i++) {
+                                    if (!delivered.add(((NewPaymentRequest) queue.take()).correlationId()))
+                                        duplicates.incrementAndGet();
+                                }
+                            } catch (InterruptedException e) {
+                                throw new RuntimeException(e);
+                            }
+                        }, executor))
+                        .toList();
+                IntStream.range(0, producers).forEach(p -> executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        NewPaymentRequest request = createRequest(p * perProducer + i);
+                        while (!queue.offer(request))
+                            Thread.yield();
+                    }
+                }));
+                CompletableFuture.allOf(consumers.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+            }
+
+            Set<String> expected = new HashSet<>();
+            IntStream.range(0, producers * perProducer).forEach(i -> expected.add("corr-" + i));
+            assertThat(duplicates).hasValue(0);
+            assertThat(delivered).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentReplicatorTest {
+
+    private static Payment payment(int index) {
+        return Payment.of("corr-" + index, RemotePaymentName.DEFAULT, BigDecimal.TEN, Instant.parse("2025-07-21T10:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("Should push published payments to the peer in sequenced batches")
+    void shouldPushPublishedPayments() throws InterruptedException {
+        RecordingChannel channel = new RecordingChannel(0);
+        PaymentReplicator replicator = new PaymentReplicator(channel, "replicate", 10, Duration.ofMillis(1));
+        replicator.publish(payment(1));
+        replicator.publishAll(List.of(payment(2), payment(3)));
+
+        replicator.start(payments -> {
+        });
+
+        ReplicationBatch batch = channel.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(batch).isNotNull();
+        assertThat(batch.sequence()).isEqualTo(1);
+        assertThat(batch.payments()).containsExactly(payment(1), payment(2), payment(3));
+        assertThat(channel.receiver).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should send the same batch again until the peer acknowledges it")
+    void shouldResendUntilAcknowledged() throws InterruptedException {
+        RecordingChannel channel = new RecordingChannel(2);
+        PaymentReplicator replicator = new PaymentReplicator(channel, "replicate", 10, Duration.ofMillis(1));
+        replicator.start(payments -> {
+        });
+
+        replicator.publish(payment(1));
+
+        ReplicationBatch first = channel.sent.poll(5, TimeUnit.SECONDS);
+        ReplicationBatch second = channel.sent.poll(5, TimeUnit.SECONDS);
+        ReplicationBatch third = channel.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(first).isEqualTo(second).isEqualTo(third);
+
+        replicator.publish(payment(2));
+
+        ReplicationBatch next = channel.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(next.sequence()).isEqualTo(first.sequence() + 1);
+        assertThat(next.payments()).containsExactly(payment(2));
+    }
+
+    @Test
+    @DisplayName("Should neither listen nor queue payments when summaries are queried from the peer")
+    void shouldDoNothingWhenDisabled() {
+        RecordingChannel channel = new RecordingChannel(0);
+        PaymentReplicator replicator = new PaymentReplicator(channel, "query", 10, Duration.ofMillis(1));
+
+        replicator.start(payments -> {
+        });
+        replicator.publish(payment(1));
+
+        assertThat(replicator.enabled()).isFalse();
+        assertThat(replicator.pending()).isZero();
+        assertThat(channel.receiver).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop queued payments on purge")
+    void shouldDropQueuedPaymentsOnPurge() {
+        PaymentReplicator replicator = new PaymentReplicator(new RecordingChannel(0), "replicate", 10, Duration.ofMillis(1));
+        replicator.publishAll(List.of(payment(1), payment(2)));
+
+        replicator.purge();
+
+        assertThat(replicator.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop sending a batch taken before a purge")
+    void shouldDropBatchInFlightOnPurge() throws InterruptedException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        PaymentReplicator replicator = new PaymentReplicator(channel, "replicate", 10, Duration.ofMillis(200));
+        replicator.start(payments -> {
+        });
+        replicator.publish(payment(1));
+        ReplicationBatch before = channel.sent.poll(5, TimeUnit.SECONDS);
+
+        replicator.purge();
+        replicator.publish(payment(2));
+
+        ReplicationBatch after = channel.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(before.payments()).containsExactly(payment(1));
+        assertThat(after.payments()).containsExactly(payment(2));
+        assertThat(after.generation()).isEqualTo(before.generation() + 1);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown summary mode")
+    void shouldRejectUnknownMode() {
+        assertThatThrownBy(() -> new PaymentReplicator(new RecordingChannel(0), "gossip", 10, Duration.ofMillis(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class RecordingChannel implements PaymentReplicationChannel {
+
+        private final LinkedBlockingQueue<ReplicationBatch> sent = new LinkedBlockingQueue<>();
+        private final AtomicInteger failures;
+        private volatile Consumer<List<Payment>> receiver;
+
+        RecordingChannel(int failures) {
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public void listen(Consumer<List<Payment>> receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void send(ReplicationBatch batch) {
+            sent.add(batch);
+            if (failures.getAndDecrement() > 0)
+                throw new IllegalStateException("not acknowledged");
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.acme.domain;
+
+import io.opentelemetry.api.OpenTelemetry;
+import org.acme.infrastructure.DurablePaymentQueue;
+import org.acme.infrastructure.InMemoryPayments;
+import org.acme.infrastructure.JsonPaymentRequestDecoder;
+import org.acme.infrastructure.LinkedPaymentQueue;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentWorkerTest {
+
+    private static final String FIRST = "4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3";
+    private static final String SECOND = "9d2b0f4e-53c1-4a11-8a0e-0f5f3c1d2e77";
+    private static final Instant REQUESTED_AT = Instant.parse("2025-07-15T12:34:56.789Z");
+
+    private final Set<String> processed = ConcurrentHashMap.newKeySet();
+    private final Set<String> alreadyProcessed = ConcurrentHashMap.newKeySet();
+    private PaymentMiddleware middleware;
+    private PaymentReplicator replicator;
+    private PaymentService paymentService;
+    private PaymentProcessor paymentProcessor;
+    private RetryScheduler retryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        RemotePaymentProcessor remote = new RemotePaymentProcessor() {
+            @Override
+            public RestResponse<RemotePaymentResponse> processPayment(RemotePaymentRequest request) {
+                processed.add(request.correlationId());
+                return alreadyProcessed.contains(request.correlationId()) ? RestResponse.status(422) : RestResponse.ok();
+            }
+
+            @Override
+            public RestResponse<ServiceHealth> serviceHealth() {
+                return RestResponse.ok(ServiceHealth.UNKNOWN);
+            }
+        };
+        middleware = new PaymentMiddleware(new InternalPaymentsManagement() {
+            @Override
+            public PaymentsSummary getSummary(String fromStr, String toStr) {
+                return PaymentsSummary.ZERO;
+            }
+
+            @Override
+            public void purgeInternalPayments() {
+            }
+
+            @Override
+            public void updateProcessorsHealth(ProcessorsHealth processorsHealth) {
+            }
+
+            @Override
+            public String healthReadyCheck() {
+                return "UP";
+            }
+        });
+        paymentProcessor = new PaymentProcessor(processor -> remote,
+                new ProcessorHealthMonitor(processor -> remote, middleware, false, Duration.ofSeconds(5), Duration.ofSeconds(5), 1000),
+                new CircuitBreakers(OpenTelemetry.noop(), 20, 10, 0.5, Duration.ofSeconds(1)),
+                new ConcurrencyLimiters(1, 25, 10, 1, 2.0, 0.9),
+                16);
+        replicator = new PaymentReplicator(new PaymentReplicationChannel() {
+            @Override
+            public void listen(Consumer<List<Payment>> receiver) {
+            }
+
+            @Override
+            public void send(ReplicationBatch batch) {
+            }
+        }, "query", 1024, Duration.ofMillis(100));
+        paymentService = new PaymentService(new InMemoryPayments(), middleware, replicator, 0, Duration.ofSeconds(15), Duration.ZERO);
+    }
+
+    private PaymentWorker worker(PaymentQueue queue) {
+        retryScheduler = new RetryScheduler(queue, Duration.ofMillis(10), Duration.ofSeconds(1));
+        return new PaymentWorker(paymentService, paymentProcessor, queue, retryScheduler, new JsonPaymentRequestDecoder(), 1, 25);
+    }
+
+    private static RawPaymentRequest raw(String body) {
+        return new RawPaymentRequest(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long stored() {
+        return paymentService.getInternalSummary(null, null).defaultPaymentSummary().totalRequests();
+    }
+
+    private void awaitStored(long expected) throws InterruptedException {
+        for (int wait = 0; wait < 500 && stored() < expected; wait++)
+            Thread.sleep(10);
+    }
+
+    @Test
+    @DisplayName("Should decode raw bodies in the worker and drop a malformed one without failing its batch")
+    void shouldDecodeRawBodiesAndDropMalformedOnes() throws InterruptedException {
+        LinkedPaymentQueue queue = new LinkedPaymentQueue(100);
+        PaymentWorker worker = worker(queue);
+        worker.accept(raw("{\"correlationId\":\"" + FIRST + "\",\"amount\":19.90}"));
+        worker.accept(raw("{\"correlationId\":"));
+        worker.accept(new NewPaymentRequest(SECOND, new BigDecimal("10.00")));
+
+        worker.start();
+        awaitStored(2);
+
+        assertThat(processed).containsExactlyInAnyOrder(FIRST, SECOND);
+        assertThat(stored()).isEqualTo(2L);
+        assertThat(paymentService.getInternalSummary(null, null).defaultPaymentSummary().totalAmount())
+                .isEqualByComparingTo("29.90");
+        assertThat(retryScheduler.pending()).isZero();
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep consuming, without acknowledging it, after a request whose payment could not be stored")
+    void shouldSurviveStorageFailure() throws InterruptedException {
+        AtomicBoolean full = new AtomicBoolean(true);
+        paymentService = new PaymentService(new InMemoryPayments() {
+            @Override
+            public void add(Payment payment) {
+                if (full.getAndSet(false))
+                    throw new IllegalStateException("full");
+                super.add(payment);
+            }
+
+            @Override
+            public void addAll(Collection<Payment> payments) {
+                if (full.getAndSet(false))
+                    throw new IllegalStateException("full");
+                super.addAll(payments);
+            }
+        }, middleware, replicator, 0, Duration.ofSeconds(15), Duration.ZERO);
+        List<PaymentIntake> acknowledged = new CopyOnWriteArrayList<>();
+        LinkedPaymentQueue queue = new LinkedPaymentQueue(100) {
+            @Override
+            public void acknowledge(PaymentIntake paymentRequest) {
+                acknowledged.add(paymentRequest);
+            }
+        };
+        PaymentWorker worker = worker(queue);
+        NewPaymentRequest unstored = new NewPaymentRequest(FIRST, new BigDecimal("19.90"));
+        worker.accept(unstored);
+
+        worker.start();
+        for (int wait = 0; wait < 500 && !processed.contains(FIRST); wait++)
+            Thread.sleep(10);
+        worker.accept(new NewPaymentRequest(SECOND, new BigDecimal("10.00")));
+        for (int wait = 0; wait < 500 && acknowledged.isEmpty(); wait++)
+            Thread.sleep(10);
+
+        assertThat(processed).containsExactlyInAnyOrder(FIRST, SECOND);
+        assertThat(stored()).isEqualTo(1L);
+        assertThat(acknowledged).hasSize(1).doesNotContain(unstored);
+    }
+
+    @Test
+    @DisplayName("Should drop without retrying a request sent for the first time that the processor rejects")
+    void shouldDropRejectedRequest() throws InterruptedException {
+        alreadyProcessed.add(FIRST);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        LinkedPaymentQueue queue = new LinkedPaymentQueue(100) {
+            @Override
+            public void acknowledge(PaymentIntake paymentRequest) {
+                acknowledged.countDown();
+            }
+        };
+        PaymentWorker worker = worker(queue);
+        worker.accept(new NewPaymentRequest(FIRST, new BigDecimal("19.90"), 0, REQUESTED_AT));
+
+        worker.start();
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).containsExactly(FIRST);
+        assertThat(stored()).isZero();
+        assertThat(retryScheduler.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should store as the processor holds it a retried request that the processor already took")
+    void shouldStoreRetriedRequestAlreadyProcessed() throws InterruptedException {
+        alreadyProcessed.add(FIRST);
+        PaymentWorker worker = worker(new LinkedPaymentQueue(100));
+        // its first attempt timed out after the processor took it
+        worker.accept(new NewPaymentRequest(FIRST, new BigDecimal("19.90"), 1, REQUESTED_AT));
+
+        worker.start();
+        awaitStored(1);
+
+        assertThat(stored()).isEqualTo(1L);
+        assertThat(paymentService.getInternalSummary(REQUESTED_AT, REQUESTED_AT)
+                .defaultPaymentSummary().totalAmount()).isEqualByComparingTo("19.90");
+        assertThat(retryScheduler.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should store as the processor holds it a request handed out again after a restart that the processor already took")
+    void shouldStoreRedeliveredRequestAlreadyProcessed(@TempDir Path directory) throws InterruptedException {
+        DurablePaymentQueue beforeRestart = new DurablePaymentQueue(directory, 100, DurablePaymentQueue.DEFAULT_CHUNK_BYTES, Duration.ZERO);
+        beforeRestart.offer(new NewPaymentRequest(FIRST, new BigDecimal("19.90"), 0, REQUESTED_AT));
+        beforeRestart.close();
+        // processed, then the process died before its payment was acknowledged
+        alreadyProcessed.add(FIRST);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        DurablePaymentQueue queue = new DurablePaymentQueue(directory, 100, DurablePaymentQueue.DEFAULT_CHUNK_BYTES, Duration.ZERO) {
+            @Override
+            public void acknowledge(PaymentIntake paymentRequest) {
+                super.acknowledge(paymentRequest);
+                acknowledged.countDown();
+            }
+        };
+
+        worker(queue).start();
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).containsExactly(FIRST);
+        assertThat(paymentService.getInternalSummary(REQUESTED_AT, REQUESTED_AT)
+                .defaultPaymentSummary().totalRequests()).isEqualTo(1L);
+        assertThat(retryScheduler.pending()).isZero();
+        queue.close();
+        List<PaymentIntake> redelivered = new ArrayList<>();
+        try (DurablePaymentQueue afterRestart = new DurablePaymentQueue(directory, 100, DurablePaymentQueue.DEFAULT_CHUNK_BYTES, Duration.ZERO)) {
+            afterRestart.drainTo(redelivered, Integer.MAX_VALUE);
+        }
+        assertThat(redelivered).isEmpty();
+    }
+}
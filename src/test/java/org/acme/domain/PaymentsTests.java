@@ -114,6 +114,31 @@ public interface PaymentsTests {
             assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(125.50));
         }
 
+        @Test
+        @DisplayName("Should add a batch of payments skipping nulls")
+        default void shouldAddBatchOfPaymentsSkippingNulls() {
+            var context = testContext();
+            var payments = context.payments();
+            var baseTime = context.baseTime();
+            var fromTime = context.fromTime();
+            var toTime = context.toTime();
+
+            List<Payment> batch = new ArrayList<>();
+            batch.add(createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.valueOf(50.00), baseTime));
+            batch.add(null);
+            batch.add(createPayment("corr-2", RemotePaymentName.FALLBACK, BigDecimal.valueOf(75.50), baseTime.plusMillis(1)));
+            batch.add(createPayment("corr-3", RemotePaymentName.DEFAULT, BigDecimal.valueOf(25.00), baseTime.minusMillis(1)));
+
+            payments.addAll(batch);
+            payments.addAll(List.of());
+
+            PaymentsSummary summary = payments.getSummary(fromTime, toTime);
+            assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(2L);
+            assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(75.00));
+            assertThat(summary.fallbackPaymentSummary().totalRequests()).isEqualTo(1L);
+            assertThat(summary.fallbackPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(75.50));
+        }
+
         @Test
         @DisplayName("Should handle null payment gracefully")
         default void shouldHandleNullPaymentGracefully() {
@@ -494,6 +519,29 @@ public interface PaymentsTests {
             assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
         }
 
+        @Test
+        @DisplayName("Should handle concurrent batch additions safely")
+        default void shouldHandleConcurrentBatchAdditionsSafely() {
+            var context = testContext();
+            var payments = context.payments();
+            var baseTime = context.baseTime();
+            var fromTime = context.fromTime();
+            var toTime = context.toTime();
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(10)) {
+                List<CompletableFuture<Void>> futures = IntStream.range(0, 100)
+                        .mapToObj(batchIndex -> CompletableFuture.runAsync(() -> payments.addAll(IntStream.range(0, 10)
+                                .mapToObj(i -> createPayment("corr-" + batchIndex + "-" + i, RemotePaymentName.DEFAULT, BigDecimal.valueOf(10.00), baseTime))
+                                .toList()), executor))
+                        .toList();
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            }
+
+            PaymentsSummary summary = payments.getSummary(fromTime, toTime);
+            assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(1000L);
+            assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(10000.00));
+        }
+
         @Test
         @DisplayName("Should handle concurrent summary generation safely")
         default void shouldHandleConcurrentSummaryGenerationSafely() throws InterruptedException {
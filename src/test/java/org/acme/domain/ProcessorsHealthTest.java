@@ -0,0 +1,66 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessorsHealthTest {
+
+    private static final int SLOW = 1000;
+
+    private static ProcessorsHealth health(ServiceHealth defaultHealth, ServiceHealth fallbackHealth) {
+        return new ProcessorsHealth(defaultHealth, fallbackHealth);
+    }
+
+    @Test
+    @DisplayName("Should route to the default processor while health is unknown")
+    void shouldRouteToDefaultWhileUnknown() {
+        assertThat(ProcessorsHealth.UNKNOWN.route(SLOW)).contains(RemotePaymentName.DEFAULT);
+        assertThat(new ProcessorsHealth(null, null)).isEqualTo(ProcessorsHealth.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Should prefer a healthy default processor even if the fallback is faster")
+    void shouldPreferHealthyDefault() {
+        var processorsHealth = health(new ServiceHealth(false, 200), new ServiceHealth(false, 10));
+
+        assertThat(processorsHealth.route(SLOW)).contains(RemotePaymentName.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Should route to the fallback when the default is failing")
+    void shouldRouteToFallbackWhenDefaultFails() {
+        var processorsHealth = health(new ServiceHealth(true, 0), new ServiceHealth(false, 10));
+
+        assertThat(processorsHealth.route(SLOW)).contains(RemotePaymentName.FALLBACK);
+    }
+
+    @Test
+    @DisplayName("Should route to a faster fallback when the default is too slow")
+    void shouldRouteToFasterFallbackWhenDefaultIsSlow() {
+        assertThat(health(new ServiceHealth(false, 5000), new ServiceHealth(false, 10)).route(SLOW))
+                .contains(RemotePaymentName.FALLBACK);
+        assertThat(health(new ServiceHealth(false, 5000), new ServiceHealth(false, 6000)).route(SLOW))
+                .contains(RemotePaymentName.DEFAULT);
+        assertThat(health(new ServiceHealth(false, 5000), new ServiceHealth(true, 10)).route(SLOW))
+                .contains(RemotePaymentName.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Should hold payments when both processors are failing")
+    void shouldHoldWhenBothFail() {
+        var processorsHealth = health(ServiceHealth.UNREACHABLE, new ServiceHealth(true, 0));
+
+        assertThat(processorsHealth.route(SLOW)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace the health of a single processor")
+    void shouldReplaceHealthOfSingleProcessor() {
+        var processorsHealth = ProcessorsHealth.UNKNOWN.with(RemotePaymentName.FALLBACK, ServiceHealth.UNREACHABLE);
+
+        assertThat(processorsHealth.defaultHealth()).isEqualTo(ServiceHealth.UNKNOWN);
+        assertThat(processorsHealth.fallbackHealth()).isEqualTo(ServiceHealth.UNREACHABLE);
+    }
+}
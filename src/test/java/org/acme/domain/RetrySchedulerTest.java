@@ -0,0 +1,94 @@
+package org.acme.domain;
+
+import org.acme.infrastructure.LinkedPaymentQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetrySchedulerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private LinkedPaymentQueue queue;
+    private RetryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        queue = new LinkedPaymentQueue(100);
+        scheduler = new RetryScheduler(queue, Duration.ofMillis(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should double the backoff per attempt with jitter up to the max backoff")
+    void shouldDoubleBackoffPerAttempt() {
+        IntStream.range(0, 100).forEach(i -> {
+            assertThat(scheduler.backoff(1)).isBetween(5 * MILLIS, 10 * MILLIS);
+            assertThat(scheduler.backoff(2)).isBetween(10 * MILLIS, 20 * MILLIS);
+            assertThat(scheduler.backoff(4)).isBetween(40 * MILLIS, 80 * MILLIS);
+            assertThat(scheduler.backoff(8)).isBetween(500 * MILLIS, 1000 * MILLIS);
+            assertThat(scheduler.backoff(Integer.MAX_VALUE)).isBetween(500 * MILLIS, 1000 * MILLIS);
+        });
+    }
+
+    @Test
+    @DisplayName("Should put a request back on the queue only after its backoff, with the next attempt")
+    void shouldRequeueAfterBackoff() throws InterruptedException {
+        RetryScheduler slowScheduler = new RetryScheduler(queue, Duration.ofMillis(200), Duration.ofSeconds(1));
+        slowScheduler.start();
+
+        slowScheduler.schedule(new NewPaymentRequest("corr-1", BigDecimal.TEN));
+
+        assertThat(queue.poll()).isNull();
+        assertThat(slowScheduler.pending()).isEqualTo(1);
+        assertThat(queue.take()).isEqualTo(new NewPaymentRequest("corr-1", BigDecimal.TEN, 1));
+        assertThat(slowScheduler.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge the original request only once its retry is back on the queue")
+    void shouldAcknowledgeOriginAfterRequeue() throws Exception {
+        CompletableFuture<PaymentIntake> acknowledged = new CompletableFuture<>();
+        LinkedPaymentQueue acknowledging = new LinkedPaymentQueue(100) {
+            @Override
+            public void acknowledge(PaymentIntake paymentRequest) {
+                acknowledged.complete(paymentRequest);
+            }
+        };
+        RetryScheduler slowScheduler = new RetryScheduler(acknowledging, Duration.ofMillis(200), Duration.ofSeconds(1));
+        slowScheduler.start();
+        RawPaymentRequest origin = new RawPaymentRequest(new byte[0]);
+
+        slowScheduler.schedule(new NewPaymentRequest("corr-1", BigDecimal.TEN), origin);
+
+        assertThat(acknowledged).isNotDone();
+        assertThat(acknowledging.take()).isEqualTo(new NewPaymentRequest("corr-1", BigDecimal.TEN, 1));
+        assertThat(acknowledged.get(5, TimeUnit.SECONDS)).isSameAs(origin);
+    }
+
+    @Test
+    @DisplayName("Should drop pending retries on purge")
+    void shouldDropPendingRetriesOnPurge() {
+        scheduler.schedule(new NewPaymentRequest("corr-1", BigDecimal.TEN));
+        scheduler.schedule(new NewPaymentRequest("corr-2", BigDecimal.TEN));
+
+        scheduler.purge();
+
+        assertThat(scheduler.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a max backoff below the initial backoff")
+    void shouldRejectInvalidBackoff() {
+        assertThatThrownBy(() -> new RetryScheduler(queue, Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
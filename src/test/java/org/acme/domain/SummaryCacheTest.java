@@ -0,0 +1,125 @@
+package org.acme.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummaryCacheTest {
+
+    private static final Instant FROM = Instant.parse("2025-07-21T09:00:00Z");
+    private static final Instant TO = Instant.parse("2025-07-21T11:00:00Z");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final BiFunction<Instant, Instant, Optional<PaymentsSummary>> loader = (from, to) -> {
+        loads.incrementAndGet();
+        return Optional.of(PaymentsSummary.ZERO);
+    };
+
+    private SummaryCache cache(int maxSize) {
+        return new SummaryCache(maxSize, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testRepeatedRangeIsLoadedOnce() {
+        SummaryCache cache = cache(4);
+
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, TO, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testAddInsideRangeInvalidates() {
+        SummaryCache cache = cache(4);
+        cache.get(FROM, TO, loader);
+
+        cache.invalidate(FROM.plus(1, ChronoUnit.HOURS));
+        cache.get(FROM, TO, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testAddOutsideRangeKeepsEntry() {
+        SummaryCache cache = cache(4);
+        cache.get(FROM, TO, loader);
+
+        cache.invalidate(TO.plusMillis(1));
+        cache.get(FROM, TO, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testClearDropsEverything() {
+        SummaryCache cache = cache(4);
+        cache.get(FROM, TO, loader);
+        cache.get(null, null, loader);
+
+        cache.clear();
+        cache.get(FROM, TO, loader);
+        cache.get(null, null, loader);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        SummaryCache cache = cache(2);
+        Instant otherTo = TO.plusSeconds(1);
+        Instant thirdTo = TO.plusSeconds(2);
+
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, otherTo, loader);
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, thirdTo, loader);
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, otherTo, loader);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void testOpenRangeExpires() {
+        SummaryCache cache = new SummaryCache(4, Duration.ofSeconds(5), Duration.ZERO);
+
+        cache.get(FROM, null, loader);
+        cache.get(FROM, null, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        SummaryCache cache = cache(0);
+
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, TO, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        SummaryCache cache = cache(4);
+        BiFunction<Instant, Instant, Optional<PaymentsSummary>> failing = (from, to) -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(cache.get(FROM, TO, failing)).isEmpty();
+        cache.get(FROM, TO, loader);
+        cache.get(FROM, TO, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,109 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.PaymentsTests;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BucketedPayments Tests")
+class BucketedPaymentsTests implements PaymentsTests.AllTests {
+
+    private BucketedPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = new BucketedPayments(BucketedPayments.DEFAULT_BUCKET_WIDTH);
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+    @Test
+    @DisplayName("Should filter payments inside partially covered edge buckets")
+    void shouldFilterPaymentsInsidePartiallyCoveredEdgeBuckets() {
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        payments.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.valueOf(1.00), base.plusMillis(100)));
+        payments.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, BigDecimal.valueOf(2.00), base.plusMillis(500)));
+        payments.add(PaymentsTests.createPayment("corr-3", RemotePaymentName.FALLBACK, BigDecimal.valueOf(3.00), base.plusSeconds(7)));
+        payments.add(PaymentsTests.createPayment("corr-4", RemotePaymentName.DEFAULT, BigDecimal.valueOf(4.00), base.plusMillis(9_200)));
+        payments.add(PaymentsTests.createPayment("corr-5", RemotePaymentName.DEFAULT, BigDecimal.valueOf(5.00), base.plusMillis(9_201)));
+
+        PaymentsSummary summary = payments.getSummary(base.plusMillis(300), base.plusMillis(9_200));
+
+        assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(2L);
+        assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(6.00));
+        assertThat(summary.fallbackPaymentSummary().totalRequests()).isEqualTo(1L);
+        assertThat(summary.fallbackPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(3.00));
+    }
+
+    @Test
+    @DisplayName("Should summarize ranges spanning several index segments")
+    void shouldSummarizeRangesSpanningSeveralIndexSegments() {
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        for (int day = 0; day < 5; day++) {
+            payments.add(PaymentsTests.createPayment("corr-" + day, RemotePaymentName.DEFAULT, BigDecimal.valueOf(10.5), base.plus(day, ChronoUnit.DAYS)));
+        }
+
+        PaymentsSummary summary = payments.getSummary(base.plusSeconds(1), base.plus(4, ChronoUnit.DAYS));
+
+        assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(4L);
+        assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(42.0));
+    }
+
+    @Test
+    @DisplayName("Should never report an amount without its count while payments are added")
+    void shouldReportConsistentSummariesWhileAdding() throws Exception {
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; adding.get(); i++) {
+                payments.add(PaymentsTests.createPayment("corr-" + i, RemotePaymentName.DEFAULT, new BigDecimal("1.00"), base.plusMillis(i % 60_000)));
+            }
+        });
+        try {
+            for (int read = 0; read < 2_000; read++) {
+                var summary = payments.getSummary(base, base.plusSeconds(60).minusNanos(1)).defaultPaymentSummary();
+                assertThat(summary.totalAmount()).isEqualByComparingTo(BigDecimal.valueOf(summary.totalRequests()));
+            }
+        } finally {
+            adding.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete summaries while several writers keep adding to the same index segment")
+    void shouldSummarizeUnderSustainedWrites() throws Exception {
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<Thread> writers = IntStream.range(0, 4).mapToObj(writer -> Thread.ofPlatform().start(() -> {
+            for (int i = 0; adding.get(); i++) {
+                payments.add(PaymentsTests.createPayment("corr-" + writer + "-" + i, RemotePaymentName.DEFAULT, new BigDecimal("1.00"), base));
+            }
+        })).toList();
+        try {
+            for (int read = 0; read < 2_000; read++) {
+                // whole buckets, so only the index is read
+                var summary = payments.getSummary(base, base.plusSeconds(60).minusNanos(1)).defaultPaymentSummary();
+                assertThat(summary.totalAmount()).isEqualByComparingTo(BigDecimal.valueOf(summary.totalRequests()));
+            }
+        } finally {
+            adding.set(false);
+            for (Thread writer : writers)
+                writer.join();
+        }
+    }
+}
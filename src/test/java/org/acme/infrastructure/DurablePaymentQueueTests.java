@@ -0,0 +1,206 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentIntake;
+import org.acme.domain.PaymentQueue;
+import org.acme.domain.PaymentQueueTests;
+import org.acme.domain.RawPaymentRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.acme.domain.PaymentQueueTests.createRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DurablePaymentQueue Tests")
+class DurablePaymentQueueTests implements PaymentQueueTests.AllTests {
+
+    @TempDir
+    Path directory;
+
+    private final List<DurablePaymentQueue> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(DurablePaymentQueue::close);
+    }
+
+    @Override
+    public PaymentQueue createQueue(int capacity) {
+        return open(new DurablePaymentQueue(directory, capacity, DurablePaymentQueue.DEFAULT_CHUNK_BYTES, Duration.ZERO));
+    }
+
+    private DurablePaymentQueue restart(int chunkBytes) {
+        return open(new DurablePaymentQueue(directory, 100, chunkBytes, Duration.ZERO));
+    }
+
+    private DurablePaymentQueue open(DurablePaymentQueue queue) {
+        opened.add(queue);
+        return queue;
+    }
+
+    private List<String> chunkFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".queue")).toList();
+        }
+    }
+
+    private static List<PaymentIntake> drain(PaymentQueue queue) {
+        List<PaymentIntake> drained = new ArrayList<>();
+        queue.drainTo(drained, Integer.MAX_VALUE);
+        return drained;
+    }
+
+    @Test
+    @DisplayName("Should hand out again after a restart the requests not acknowledged, from the oldest one on")
+    void shouldRecoverRequestsFromOldestNotAcknowledged() {
+        DurablePaymentQueue queue = restart(128);
+        IntStream.range(0, 10).forEach(i -> queue.offer(createRequest(i)));
+        List<PaymentIntake> taken = drain(queue);
+        List.of(0, 1, 2, 5).forEach(i -> queue.acknowledge(taken.get(i)));
+        queue.sync();
+
+        assertThat(drain(restart(128))).containsExactlyElementsOf(
+                IntStream.range(3, 10).mapToObj(PaymentQueueTests::createRequest).toList());
+    }
+
+    @Test
+    @DisplayName("Should delete the chunks before the committed offset")
+    void shouldDeleteConsumedChunks() throws IOException {
+        DurablePaymentQueue queue = restart(72);
+        IntStream.range(0, 20).forEach(i -> queue.offer(createRequest(i)));
+        drain(queue).forEach(queue::acknowledge);
+
+        queue.sync();
+
+        assertThat(chunkFiles()).hasSize(1);
+        assertThat(drain(restart(72))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should append after the committed offset once every chunk was consumed and deleted")
+    void shouldAppendAfterOffsetOfDeletedChunks() throws IOException {
+        // two requests fill a chunk exactly, so the offset ends up at the start of the next one
+        DurablePaymentQueue queue = restart(64);
+        IntStream.range(10, 14).forEach(i -> queue.offer(createRequest(i)));
+        drain(queue).forEach(queue::acknowledge);
+        queue.close();
+        assertThat(chunkFiles()).isEmpty();
+
+        restart(64).offer(createRequest(14));
+
+        assertThat(drain(restart(64))).containsExactly(createRequest(14));
+    }
+
+    @Test
+    @DisplayName("Should sync in the background once started, and a last time when closed")
+    void shouldSyncInBackgroundUntilClosed() throws IOException, InterruptedException {
+        DurablePaymentQueue queue = new DurablePaymentQueue(directory, 100, 72, Duration.ofMillis(1));
+        queue.start();
+        IntStream.range(0, 20).forEach(i -> queue.offer(createRequest(i)));
+        drain(queue).forEach(queue::acknowledge);
+
+        for (int wait = 0; wait < 500 && chunkFiles().size() > 1; wait++)
+            Thread.sleep(10);
+        assertThat(chunkFiles()).hasSize(1);
+
+        queue.offer(createRequest(20));
+        queue.acknowledge(drain(queue).getFirst());
+        queue.offer(createRequest(21));
+        queue.close();
+
+        assertThat(drain(restart(72))).containsExactly(createRequest(21));
+    }
+
+    @Test
+    @DisplayName("Should keep the attempt, the exact amount, requestedAt and raw bodies across a restart")
+    void shouldRecoverRequestsExactly() {
+        DurablePaymentQueue queue = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        Instant requestedAt = Instant.parse("2025-07-15T12:34:56.123456789Z");
+        NewPaymentRequest retry = new NewPaymentRequest("corr-é", new BigDecimal("-1234567890.0050"), 3, requestedAt);
+        NewPaymentRequest unstamped = createRequest(1);
+        byte[] body = "{\"correlationId\":\"corr-1\",\"amount\":19.90}".getBytes(StandardCharsets.UTF_8);
+        queue.offer(retry);
+        queue.offer(unstamped);
+        queue.offer(new RawPaymentRequest(body, requestedAt));
+
+        List<PaymentIntake> recovered = drain(restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES));
+
+        assertThat(recovered).hasSize(3);
+        assertThat(recovered.getFirst()).isEqualTo(retry);
+        assertThat(((NewPaymentRequest) recovered.getFirst()).amount().scale()).isEqualTo(4);
+        assertThat(recovered.get(1)).isEqualTo(unstamped);
+        assertThat(((RawPaymentRequest) recovered.get(2)).body()).isEqualTo(body);
+        assertThat(((RawPaymentRequest) recovered.get(2)).requestedAt()).isEqualTo(requestedAt);
+    }
+
+    @Test
+    @DisplayName("Should keep a null correlation id apart from an empty one across a restart")
+    void shouldRecoverNullCorrelationId() {
+        DurablePaymentQueue queue = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        queue.offer(new NewPaymentRequest(null, new BigDecimal("19.90")));
+        queue.offer(new NewPaymentRequest("", new BigDecimal("19.90")));
+
+        assertThat(drain(restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES))).containsExactly(
+                new NewPaymentRequest(null, new BigDecimal("19.90")),
+                new NewPaymentRequest("", new BigDecimal("19.90")));
+    }
+
+    @Test
+    @DisplayName("Should tell the requests handed out again by a restart until they are acknowledged")
+    void shouldTellRedeliveredRequests() {
+        DurablePaymentQueue queue = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        queue.offer(createRequest(1));
+        queue.close();
+        DurablePaymentQueue restarted = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        restarted.offer(createRequest(2));
+
+        List<PaymentIntake> handedOut = drain(restarted);
+
+        assertThat(restarted.redelivered(handedOut.getFirst())).isTrue();
+        assertThat(restarted.redelivered(handedOut.get(1))).isFalse();
+        restarted.acknowledge(handedOut.getFirst());
+        assertThat(restarted.redelivered(handedOut.getFirst())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge each offer of the same instance once")
+    void shouldAcknowledgeRepeatedInstance() {
+        DurablePaymentQueue queue = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        NewPaymentRequest request = createRequest(1);
+        queue.offer(request);
+        queue.offer(request);
+        queue.offer(createRequest(2));
+        drain(queue);
+
+        queue.acknowledge(request);
+        queue.acknowledge(request);
+        queue.sync();
+
+        assertThat(drain(restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES))).containsExactly(createRequest(2));
+    }
+
+    @Test
+    @DisplayName("Should not hand out cleared requests after a restart")
+    void shouldNotRecoverClearedRequests() {
+        DurablePaymentQueue queue = restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES);
+        IntStream.range(0, 5).forEach(i -> queue.offer(createRequest(i)));
+
+        queue.clear();
+        queue.sync();
+
+        assertThat(drain(restart(DurablePaymentQueue.DEFAULT_CHUNK_BYTES))).isEmpty();
+    }
+}
@@ -3,15 +3,20 @@ package org.acme.infrastructure;
 import org.acme.domain.PaymentsTests;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+
+import java.util.concurrent.ForkJoinPool;
 
 @DisplayName("InMemoryPayments Tests")
 class InMemoryPaymentsTests implements PaymentsTests.AllTests {
 
+    private static final ForkJoinPool PARALLEL_POOL = new ForkJoinPool(4);
+
     private InMemoryPayments payments;
 
     @BeforeEach
     void setUp() {
-        payments = new InMemoryPayments(InMemoryPayments.DEFAULT_PARALLEL_STREAM_THRESHOLD);
+        payments = new InMemoryPayments();
     }
 
     @Override
@@ -19,4 +24,21 @@ class InMemoryPaymentsTests implements PaymentsTests.AllTests {
         return Context.of(payments);
     }
 
+    @Nested
+    @DisplayName("With fork/join summaries")
+    class ForkJoinSummaryTests implements PaymentsTests.AllTests {
+
+        private InMemoryPayments payments;
+
+        @BeforeEach
+        void setUp() {
+            payments = new InMemoryPayments(PARALLEL_POOL);
+        }
+
+        @Override
+        public Context testContext() {
+            return Context.of(payments);
+        }
+    }
+
 }
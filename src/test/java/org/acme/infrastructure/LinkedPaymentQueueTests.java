@@ -0,0 +1,15 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentQueue;
+import org.acme.domain.PaymentQueueTests;
+import org.junit.jupiter.api.DisplayName;
+
+@DisplayName("LinkedPaymentQueue Tests")
+class LinkedPaymentQueueTests implements PaymentQueueTests.AllTests {
+
+    @Override
+    public PaymentQueue createQueue(int capacity) {
+        return new LinkedPaymentQueue(capacity);
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+
+@DisplayName("OffHeapPayments Tests")
+class OffHeapPaymentsTests implements PaymentsTests.AllTests {
+
+    private OffHeapPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = new OffHeapPayments(OffHeapPayments.DEFAULT_SEGMENT_SLOTS);
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.acme.infrastructure;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.acme.api.PaymentsResource;
+import org.acme.domain.NewPaymentRequest;
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentJsonCodecTest {
+
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    @AfterAll
+    static void closeJsonb() throws Exception {
+        JSONB.close();
+    }
+
+    private static NewPaymentRequest read(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return PaymentJsonCodec.readNewPaymentRequest(bytes, 0, bytes.length);
+    }
+
+    private static JsonObject parse(byte[] json) {
+        return Json.createReader(new StringReader(new String(json, StandardCharsets.UTF_8))).readObject();
+    }
+
+    private static JsonObject parse(String json) {
+        return Json.createReader(new StringReader(json)).readObject();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"19.90", "0", "-3.5", "0.001", "1E+2", "12345678901234567890.123", "1.5e-3", "100"})
+    @DisplayName("Should read payment requests like JSON-B, keeping the amount scale")
+    void shouldReadPaymentRequestsLikeJsonb(String amount) {
+        String json = "{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":" + amount + "}";
+
+        PaymentsResource.PaymentRequest expected = JSONB.fromJson(json, PaymentsResource.PaymentRequest.class);
+
+        assertThat(read(json)).isEqualTo(new NewPaymentRequest(expected.correlationId(), expected.amount()));
+    }
+
+    @Test
+    @DisplayName("Should read fields in any order, with whitespace, unknown fields and escapes")
+    void shouldReadFlexibleInput() {
+        NewPaymentRequest request = read("""
+                 {
+                   "extra": {"nested": [1, "two", {"three": null}], "flag": true},
+                   "amount" : 10.50 ,
+                   "correlationId" : "a\\"b\\\\c\\u00e9\\n"
+                 }
+                """);
+
+        assertThat(request).isEqualTo(new NewPaymentRequest("a\"b\\cé\n", new BigDecimal("10.50")));
+    }
+
+    @Test
+    @DisplayName("Should read missing and null fields as null")
+    void shouldReadNullFields() {
+        assertThat(read("{}")).isEqualTo(new NewPaymentRequest(null, null));
+        assertThat(read("{\"correlationId\":null,\"amount\":null}")).isEqualTo(new NewPaymentRequest(null, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "{", "{\"amount\":}", "{\"amount\":1", "{\"amount\":1}x", "[1]",
+            "{\"correlationId\":\"abc}", "{\"amount\":1,}", "{\"amount\" 1}", "{\"amount\":abc}"})
+    @DisplayName("Should reject malformed JSON")
+    void shouldRejectMalformedJson(String json) {
+        assertThatThrownBy(() -> read(json)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2025-07-21T10:00:00Z", "2025-07-21T10:00:00.123Z", "2025-07-21T10:00:00.123456Z",
+            "2025-07-21T10:00:00.123456789Z", "1970-01-01T00:00:00Z", "1969-12-31T23:59:59.999Z", "0999-01-01T00:00:00Z"})
+    @DisplayName("Should write remote payment requests like JSON-B")
+    void shouldWriteRemotePaymentRequestsLikeJsonb(String requestedAt) {
+        RemotePaymentRequest request = new RemotePaymentRequest("corr-\"1\"-é😀", new BigDecimal("19.90"), Instant.parse(requestedAt));
+
+        byte[] json = PaymentJsonCodec.write(request);
+
+        assertThat(parse(json)).isEqualTo(parse(JSONB.toJson(request)));
+        assertThat(new String(json, StandardCharsets.UTF_8)).contains("\"requestedAt\":\"" + Instant.parse(requestedAt) + "\"");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "19.90", "-0.05", "0.0000001", "1E+3", "123456789012345678901234.5", "1000.000"})
+    @DisplayName("Should write amounts exactly as BigDecimal.toString")
+    void shouldWriteAmountsAsBigDecimalToString(String amount) {
+        RemotePaymentRequest request = new RemotePaymentRequest("corr-1", new BigDecimal(amount), Instant.EPOCH);
+
+        String json = new String(PaymentJsonCodec.write(request), StandardCharsets.UTF_8);
+
+        assertThat(json).isEqualTo("{\"correlationId\":\"corr-1\",\"amount\":" + new BigDecimal(amount) + ",\"requestedAt\":\"1970-01-01T00:00:00Z\"}");
+    }
+
+    @Test
+    @DisplayName("Should write and read payments summaries like JSON-B")
+    void shouldRoundTripPaymentsSummariesLikeJsonb() {
+        PaymentsSummary summary = PaymentsSummary.of(
+                PaymentSummary.of(8_123L, new BigDecimal("161647.70")),
+                PaymentSummary.of(0L, BigDecimal.ZERO));
+
+        byte[] json = PaymentJsonCodec.write(summary);
+
+        assertThat(parse(json)).isEqualTo(parse(JSONB.toJson(summary)));
+        assertThat(PaymentJsonCodec.readPaymentsSummary(json, 0, json.length)).isEqualTo(summary);
+        byte[] jsonbBytes = JSONB.toJson(summary).getBytes(StandardCharsets.UTF_8);
+        assertThat(PaymentJsonCodec.readPaymentsSummary(jsonbBytes, 0, jsonbBytes.length)).isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Should read missing summaries as zero")
+    void shouldReadMissingSummariesAsZero() {
+        byte[] json = "{\"default\":null}".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(PaymentJsonCodec.readPaymentsSummary(json, 0, json.length)).isEqualTo(PaymentsSummary.ZERO);
+    }
+}
@@ -0,0 +1,88 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentLogTest {
+
+    private static final Instant REQUESTED_AT = Instant.parse("2025-07-21T10:00:00.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    private static Payment payment(int index) {
+        return Payment.of(new UUID(0L, index).toString(), RemotePaymentName.values()[index % 2],
+                new BigDecimal("19.90"), REQUESTED_AT.plusMillis(index));
+    }
+
+    private List<Payment> replay() {
+        List<Payment> replayed = new ArrayList<>();
+        new PaymentLog(directory, 4).replay(replayed::add);
+        return replayed;
+    }
+
+    @Test
+    @DisplayName("Should replay the appended payments in order across segments")
+    void shouldReplayAcrossSegments() {
+        PaymentLog log = new PaymentLog(directory, 4);
+        List<Payment> appended = IntStream.range(0, 10).mapToObj(PaymentLogTest::payment).toList();
+        log.append(appended.getFirst());
+        log.appendAll(appended.subList(1, appended.size()));
+        log.sync();
+
+        assertThat(replay()).containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    @DisplayName("Should append to new segments after a restart, keeping the previous ones")
+    void shouldAppendToNewSegmentsAfterRestart() throws IOException {
+        new PaymentLog(directory, 4).append(payment(1));
+        new PaymentLog(directory, 4).append(payment(2));
+
+        assertThat(replay()).containsExactly(payment(1), payment(2));
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("payments-0000000000.wal", "payments-0000000001.wal");
+        }
+    }
+
+    @Test
+    @DisplayName("Should not replay payments appended by the current run")
+    void shouldNotReplayCurrentRun() {
+        PaymentLog log = new PaymentLog(directory, 4);
+        log.append(payment(1));
+        List<Payment> replayed = new ArrayList<>();
+
+        log.replay(replayed::add);
+
+        assertThat(replayed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should delete every segment on purge")
+    void shouldDeleteSegmentsOnPurge() {
+        new PaymentLog(directory, 4).append(payment(1));
+        PaymentLog log = new PaymentLog(directory, 4);
+        log.append(payment(2));
+
+        log.purge();
+        log.append(payment(3));
+
+        assertThat(replay()).containsExactly(payment(3));
+    }
+}
@@ -0,0 +1,98 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentSnapshotsTest {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final Instant BASE = Instant.parse("2025-07-21T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private static PaymentAggregates aggregates() {
+        PaymentAggregates aggregates = new PaymentAggregates(MILLIS);
+        aggregates.add(Payment.of("corr-1", RemotePaymentName.DEFAULT, new BigDecimal("19.90"), BASE.plusNanos(500_000)));
+        aggregates.add(Payment.of("corr-2", RemotePaymentName.DEFAULT, new BigDecimal("0.005"), BASE.plusNanos(900_000)));
+        aggregates.add(Payment.of("corr-3", RemotePaymentName.FALLBACK, BigDecimal.TEN, BASE.plusMillis(1)));
+        aggregates.add(Payment.of("corr-4", RemotePaymentName.DEFAULT, BigDecimal.ONE, BASE.plusMillis(2)));
+        return aggregates;
+    }
+
+    private static SummaryAccumulator summarize(PaymentAggregates aggregates, long from, long to) {
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        aggregates.summarize(from, to, accumulator);
+        return accumulator;
+    }
+
+    @Test
+    @DisplayName("Should only count the buckets lying entirely in the range")
+    void shouldCountWholeBucketsOnly() {
+        PaymentAggregates aggregates = aggregates();
+        long base = EpochNanos.of(BASE);
+
+        var firstTwo = summarize(aggregates, base, base + 2 * MILLIS - 1).toPaymentsSummary();
+        assertThat(firstTwo.defaultPaymentSummary().totalRequests()).isEqualTo(2L);
+        assertThat(firstTwo.defaultPaymentSummary().totalAmount()).isEqualTo(new BigDecimal("19.905"));
+        assertThat(firstTwo.fallbackPaymentSummary().totalRequests()).isEqualTo(1L);
+
+        var partial = summarize(aggregates, base + 1, base + 2 * MILLIS).toPaymentsSummary();
+        assertThat(partial.defaultPaymentSummary().totalRequests()).isZero();
+        assertThat(partial.fallbackPaymentSummary().totalRequests()).isEqualTo(1L);
+
+        assertThat(summarize(aggregates, Long.MIN_VALUE, Long.MAX_VALUE).toPaymentsSummary().defaultPaymentSummary().totalRequests()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should read back the saved snapshot")
+    void shouldRoundTripSnapshot() {
+        PaymentSnapshots snapshots = new PaymentSnapshots(directory);
+
+        snapshots.save(new PaymentSnapshots.Snapshot(7L, aggregates()));
+        PaymentSnapshots.Snapshot loaded = snapshots.load().orElseThrow();
+
+        assertThat(loaded.segments()).isEqualTo(7L);
+        assertThat(loaded.aggregates().bucketWidth()).isEqualTo(MILLIS);
+        assertThat(loaded.aggregates().buckets()).isEqualTo(3);
+        assertThat(summarize(loaded.aggregates(), Long.MIN_VALUE, Long.MAX_VALUE).toPaymentsSummary())
+                .isEqualTo(summarize(aggregates(), Long.MIN_VALUE, Long.MAX_VALUE).toPaymentsSummary());
+    }
+
+    @Test
+    @DisplayName("Should load nothing without a snapshot, including after a purge")
+    void shouldLoadNothingWithoutSnapshot() {
+        PaymentSnapshots snapshots = new PaymentSnapshots(directory);
+        assertThat(snapshots.load()).isEmpty();
+
+        snapshots.save(new PaymentSnapshots.Snapshot(1L, aggregates()));
+        snapshots.purge();
+
+        assertThat(snapshots.load()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse a corrupted snapshot")
+    void shouldRefuseCorruptedSnapshot() throws IOException {
+        PaymentSnapshots snapshots = new PaymentSnapshots(directory);
+        snapshots.save(new PaymentSnapshots.Snapshot(1L, aggregates()));
+        Path file = directory.resolve("payments.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[20] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(snapshots::load).isInstanceOf(RuntimeException.class);
+    }
+}
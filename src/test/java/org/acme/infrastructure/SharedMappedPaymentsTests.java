@@ -0,0 +1,110 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.PaymentsTests;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SharedMappedPayments Tests")
+class SharedMappedPaymentsTests implements PaymentsTests.AllTests {
+
+    // the large-volume TCK case stores 10 million payments in one region; the file stays sparse
+    private static final int REGION_SLOTS = 1 << 24;
+    private static final Instant REQUESTED_AT = Instant.parse("2025-07-21T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private SharedMappedPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = new SharedMappedPayments(directory.resolve("payments"), 0, 2, REGION_SLOTS);
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+    @Test
+    @DisplayName("Should summarize the payments of every instance sharing the file")
+    void shouldSummarizeEveryRegion() {
+        SharedMappedPayments peer = new SharedMappedPayments(directory.resolve("payments"), 1, 2, REGION_SLOTS);
+
+        payments.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, new BigDecimal("10.50"), REQUESTED_AT));
+        peer.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, new BigDecimal("1.25"), REQUESTED_AT));
+        peer.add(PaymentsTests.createPayment("corr-3", RemotePaymentName.FALLBACK, BigDecimal.ONE, REQUESTED_AT));
+
+        PaymentsSummary expected = PaymentsSummary.of(
+                PaymentSummary.of(2L, new BigDecimal("11.75")),
+                PaymentSummary.of(1L, BigDecimal.ONE));
+        assertThat(payments.getSummary(null, null)).isEqualTo(expected);
+        assertThat(peer.getSummary(null, null)).isEqualTo(expected);
+        assertThat(payments.includesPeer()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should purge only the region of this instance")
+    void shouldPurgeOwnRegionOnly() {
+        SharedMappedPayments peer = new SharedMappedPayments(directory.resolve("payments"), 1, 2, REGION_SLOTS);
+        payments.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT));
+        peer.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT));
+
+        payments.purge();
+
+        assertThat(peer.getSummary(null, null).defaultPaymentSummary().totalRequests()).isEqualTo(1L);
+        assertThat(peer.getSummary(null, null).defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.ONE);
+    }
+
+    @Test
+    @DisplayName("Should keep the payments of a previous run mapping the same file")
+    void shouldKeepPaymentsAcrossRemaps() {
+        payments.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.FALLBACK, BigDecimal.TEN, REQUESTED_AT));
+
+        SharedMappedPayments restarted = new SharedMappedPayments(directory.resolve("payments"), 0, 2, REGION_SLOTS);
+        restarted.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.FALLBACK, BigDecimal.ONE, REQUESTED_AT));
+
+        assertThat(restarted.getSummary(null, null).fallbackPaymentSummary().totalRequests()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should reject payments once its region is full")
+    void shouldRejectPaymentsWhenFull() {
+        SharedMappedPayments small = new SharedMappedPayments(directory.resolve("small"), 0, 1, 1);
+        small.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT));
+
+        assertThatThrownBy(() -> small.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(small.includesPeer()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should leave the cursor at the capacity when a batch does not fit")
+    void shouldKeepRoomLeftByBatchThatDoesNotFit() {
+        SharedMappedPayments small = new SharedMappedPayments(directory.resolve("small"), 0, 1, 2);
+        small.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT));
+
+        assertThatThrownBy(() -> small.addAll(List.of(
+                PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT),
+                PaymentsTests.createPayment("corr-3", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT))))
+                .isInstanceOf(IllegalStateException.class);
+        small.add(PaymentsTests.createPayment("corr-4", RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT));
+
+        PaymentSummary summary = small.getSummary(null, null).defaultPaymentSummary();
+        assertThat(summary.totalRequests()).isEqualTo(2L);
+        assertThat(summary.totalAmount()).isEqualByComparingTo("11");
+    }
+}
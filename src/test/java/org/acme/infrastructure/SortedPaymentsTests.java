@@ -0,0 +1,47 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.PaymentsTests;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SortedPayments Tests")
+class SortedPaymentsTests implements PaymentsTests.AllTests {
+
+    private SortedPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = new SortedPayments(SortedPayments.DEFAULT_OUT_OF_ORDER_TOLERANCE);
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+    @Test
+    @DisplayName("Should summarize out-of-order and late payments")
+    void shouldSummarizeOutOfOrderAndLatePayments() {
+        SortedPayments payments = new SortedPayments(Duration.ofMillis(100));
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        long[] offsets = {0, 50, 20, 500, 480, 1_000, 30, 2_000, 1_990, 10};
+        for (int i = 0; i < offsets.length; i++) {
+            payments.add(PaymentsTests.createPayment("corr-" + i, RemotePaymentName.DEFAULT, BigDecimal.ONE, base.plusMillis(offsets[i])));
+        }
+
+        PaymentsSummary summary = payments.getSummary(base.plusMillis(20), base.plusMillis(1_990));
+
+        assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(7L);
+        assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualTo(BigDecimal.valueOf(7));
+    }
+
+}
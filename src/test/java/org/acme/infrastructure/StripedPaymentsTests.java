@@ -0,0 +1,22 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+
+@DisplayName("StripedPayments Tests")
+class StripedPaymentsTests implements PaymentsTests.AllTests {
+
+    private StripedPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = new StripedPayments();
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+}
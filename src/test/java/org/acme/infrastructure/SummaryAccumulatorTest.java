@@ -0,0 +1,61 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentSummary;
+import org.acme.domain.PaymentsSummary;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummaryAccumulatorTest {
+
+    private static final int DEFAULT = RemotePaymentName.DEFAULT.ordinal();
+    private static final int FALLBACK = RemotePaymentName.FALLBACK.ordinal();
+
+    @Test
+    void testEmptyAccumulatorIsZero() {
+        PaymentsSummary summary = new SummaryAccumulator().toPaymentsSummary();
+
+        assertThat(summary.defaultPaymentSummary()).isEqualTo(PaymentSummary.ZERO);
+        assertThat(summary.fallbackPaymentSummary()).isEqualTo(PaymentSummary.ZERO);
+    }
+
+    @Test
+    void testSumKeepsBigDecimalScale() {
+        BigDecimal first = new BigDecimal("10.5");
+        BigDecimal second = new BigDecimal("20.444");
+        BigDecimal third = new BigDecimal("3");
+
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        accumulator.add(DEFAULT, PackedAmount.pack(first));
+        accumulator.add(DEFAULT, PackedAmount.pack(second));
+        accumulator.add(DEFAULT, PackedAmount.pack(third));
+
+        PaymentSummary summary = accumulator.toPaymentsSummary().defaultPaymentSummary();
+        assertThat(summary.totalRequests()).isEqualTo(3L);
+        assertThat(summary.totalAmount()).isEqualTo(first.add(second).add(third));
+    }
+
+    @Test
+    void testMergeCombinesProcessorsIndependently() {
+        SummaryAccumulator left = new SummaryAccumulator();
+        left.add(DEFAULT, PackedAmount.pack(new BigDecimal("1.10")));
+        SummaryAccumulator right = new SummaryAccumulator();
+        right.add(DEFAULT, PackedAmount.pack(new BigDecimal("2.2")));
+        right.add(FALLBACK, PackedAmount.pack(new BigDecimal("19.90")));
+
+        PaymentsSummary summary = left.merge(right).toPaymentsSummary();
+
+        assertThat(summary.defaultPaymentSummary()).isEqualTo(PaymentSummary.of(2L, new BigDecimal("3.30")));
+        assertThat(summary.fallbackPaymentSummary()).isEqualTo(PaymentSummary.of(1L, new BigDecimal("19.90")));
+    }
+
+    @Test
+    void testPackedAmountRoundTrip() {
+        assertThat(PackedAmount.unpack(PackedAmount.pack(new BigDecimal("-19.90")))).isEqualTo(new BigDecimal("-19.90"));
+        assertThat(PackedAmount.unpack(PackedAmount.pack(new BigDecimal("1E+3")))).isEqualTo(new BigDecimal("1000"));
+        assertThat(PackedAmount.unpack(PackedAmount.pack(null))).isEqualTo(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,91 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.net.SocketAddress;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.acme.domain.ProcessorsHealth;
+import org.acme.domain.ServiceHealth;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VertxInternalPaymentsManagementTest {
+
+    private Vertx vertx;
+    private Jsonb jsonb;
+    private LinkedBlockingQueue<String> requests;
+    private VertxInternalPaymentsManagement management;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        jsonb = JsonbBuilder.create();
+        requests = new LinkedBlockingQueue<>();
+        HttpServer server = vertx.createHttpServer()
+                .requestHandler(request -> request.body().onSuccess(body -> {
+                    requests.add(request.method() + " " + request.uri() + " " + body);
+                    switch (request.path()) {
+                        case "/internal/payments-summary" -> request.response()
+                                .end("{\"default\":{\"totalRequests\":2,\"totalAmount\":39.80},\"fallback\":{\"totalRequests\":0,\"totalAmount\":0}}");
+                        case "/q/health/ready" -> request.response().end("{\"status\":\"UP\"}");
+                        case "/internal/purge-payments" -> request.response().setStatusCode(503).end();
+                        default -> request.response().setStatusCode(204).end();
+                    }
+                }))
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        // the same client runs over a Unix domain socket with the native transport, TCP keeps the test portable
+        management = new VertxInternalPaymentsManagement(vertx.createHttpClient(),
+                SocketAddress.inetSocketAddress(server.actualPort(), "localhost"), Duration.ofSeconds(5), jsonb);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        jsonb.close();
+    }
+
+    @Test
+    @DisplayName("Should fetch the peer's summary, sending only the given bounds")
+    void shouldFetchSummary() throws InterruptedException {
+        var summary = management.getSummary("2025-07-21T10:00:00Z", "");
+
+        assertThat(summary.defaultPaymentSummary().totalRequests()).isEqualTo(2);
+        assertThat(summary.defaultPaymentSummary().totalAmount()).isEqualByComparingTo(new BigDecimal("39.80"));
+        assertThat(requests.poll(5, TimeUnit.SECONDS))
+                .isEqualTo("GET /internal/payments-summary?from=2025-07-21T10%3A00%3A00Z ");
+    }
+
+    @Test
+    @DisplayName("Should post the processors health as JSON")
+    void shouldPostProcessorsHealth() throws InterruptedException {
+        management.updateProcessorsHealth(new ProcessorsHealth(ServiceHealth.UNKNOWN, ServiceHealth.UNREACHABLE));
+
+        assertThat(requests.poll(5, TimeUnit.SECONDS))
+                .startsWith("POST /internal/processors-health {")
+                .contains("\"default\"", "\"fallback\"");
+    }
+
+    @Test
+    @DisplayName("Should return the readiness body")
+    void shouldReturnReadiness() {
+        assertThat(management.healthReadyCheck()).isEqualTo("{\"status\":\"UP\"}");
+    }
+
+    @Test
+    @DisplayName("Should fail when the peer answers with an error status")
+    void shouldFailOnErrorStatus() {
+        assertThatThrownBy(() -> management.purgeInternalPayments()).isInstanceOf(RuntimeException.class);
+    }
+}
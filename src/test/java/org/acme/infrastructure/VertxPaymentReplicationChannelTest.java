@@ -0,0 +1,152 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import org.acme.domain.Payment;
+import org.acme.domain.RemotePaymentName;
+import org.acme.domain.ReplicationBatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VertxPaymentReplicationChannelTest {
+
+    private static final List<Payment> PAYMENTS = List.of(
+            Payment.of(null, RemotePaymentName.DEFAULT, new BigDecimal("19.90"), Instant.parse("2025-07-21T10:00:00.123456789Z")),
+            Payment.of(null, RemotePaymentName.FALLBACK, new BigDecimal("0.01"), Instant.parse("2025-07-21T10:00:01Z")));
+
+    private Vertx vertx;
+    private int port;
+    private LinkedBlockingQueue<List<Payment>> received;
+    private VertxPaymentReplicationChannel peer;
+    private VertxPaymentReplicationChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        vertx = Vertx.vertx();
+        port = freePort();
+        received = new LinkedBlockingQueue<>();
+        peer = new VertxPaymentReplicationChannel(vertx, SocketAddress.inetSocketAddress(port, "localhost"),
+                SocketAddress.inetSocketAddress(freePort(), "localhost"), Duration.ofSeconds(5));
+        channel = new VertxPaymentReplicationChannel(vertx, SocketAddress.inetSocketAddress(freePort(), "localhost"),
+                SocketAddress.inetSocketAddress(port, "localhost"), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    @DisplayName("Should round trip a batch through the binary frame")
+    void shouldRoundTripFrame() {
+        ReplicationBatch batch = new ReplicationBatch(42L, 3L, 7L, PAYMENTS);
+
+        var frame = VertxPaymentReplicationChannel.encode(batch);
+
+        assertThat(frame.getInt(0)).isEqualTo(frame.length() - Integer.BYTES);
+        assertThat(VertxPaymentReplicationChannel.decode(frame.slice(Integer.BYTES, frame.length()))).isEqualTo(batch);
+    }
+
+    @Test
+    @DisplayName("Should deliver acknowledged batches to the peer over one connection")
+    void shouldDeliverBatches() throws InterruptedException {
+        peer.listen(received::add);
+
+        channel.send(new ReplicationBatch(1L, 0L, 1L, PAYMENTS.subList(0, 1)));
+        channel.send(new ReplicationBatch(1L, 0L, 2L, PAYMENTS.subList(1, 2)));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS.subList(0, 1));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS.subList(1, 2));
+    }
+
+    @Test
+    @DisplayName("Should apply a batch sent again only once")
+    void shouldApplyResentBatchOnce() throws InterruptedException {
+        peer.listen(received::add);
+        ReplicationBatch batch = new ReplicationBatch(1L, 0L, 1L, PAYMENTS);
+
+        channel.send(batch);
+        channel.send(batch);
+        channel.send(new ReplicationBatch(2L, 0L, 1L, PAYMENTS));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS);
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS);
+        assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should skip a batch taken before a purge of the sender once a later one was applied")
+    void shouldSkipBatchOfEarlierGeneration() throws InterruptedException {
+        peer.listen(received::add);
+
+        channel.send(new ReplicationBatch(1L, 1L, 1L, PAYMENTS.subList(0, 1)));
+        channel.send(new ReplicationBatch(1L, 0L, 2L, PAYMENTS.subList(1, 2)));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS.subList(0, 1));
+        assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should store batches off the event loop")
+    void shouldStoreOffEventLoop() throws InterruptedException {
+        LinkedBlockingQueue<Boolean> onEventLoop = new LinkedBlockingQueue<>();
+        peer.listen(payments -> onEventLoop.add(Context.isOnEventLoopThread()));
+
+        channel.send(new ReplicationBatch(1L, 0L, 1L, PAYMENTS));
+
+        assertThat(onEventLoop.poll(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not acknowledge a batch the peer failed to store, and store it when sent again")
+    void shouldNotAcknowledgeUnstoredBatch() throws InterruptedException {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        peer.listen(payments -> {
+            if (failing.getAndSet(false))
+                throw new IllegalStateException("store full");
+            received.add(payments);
+        });
+        ReplicationBatch batch = new ReplicationBatch(1L, 0L, 1L, PAYMENTS);
+
+        assertThatThrownBy(() -> channel.send(batch)).isInstanceOf(IllegalStateException.class);
+        channel.send(batch);
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS);
+        assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fail the send while the peer is unreachable and succeed once it listens")
+    void shouldFailUntilPeerListens() throws InterruptedException {
+        ReplicationBatch batch = new ReplicationBatch(1L, 0L, 1L, PAYMENTS);
+
+        assertThatThrownBy(() -> channel.send(batch)).isInstanceOf(IllegalStateException.class);
+
+        peer.listen(received::add);
+        channel.send(batch);
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(PAYMENTS);
+    }
+}
@@ -0,0 +1,90 @@
+package org.acme.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.acme.domain.RemotePaymentRequest;
+import org.acme.domain.ServiceHealth;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VertxRemotePaymentProcessorTest {
+
+    private static final Instant REQUESTED_AT = Instant.parse("2025-07-21T10:00:00.123Z");
+
+    private Vertx vertx;
+    private Jsonb jsonb;
+    private HttpServer server;
+    private CompletableFuture<String> receivedBody;
+    private VertxRemotePaymentProcessor processor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        jsonb = JsonbBuilder.create();
+        receivedBody = new CompletableFuture<>();
+        server = vertx.createHttpServer()
+                .requestHandler(request -> {
+                    if (request.path().equals("/payments/service-health")) {
+                        request.response().putHeader("Content-Type", "application/json")
+                                .end("{\"failing\":true,\"minResponseTime\":120}");
+                        return;
+                    }
+                    request.body().onSuccess(body -> {
+                        receivedBody.complete(body.toString());
+                        request.response().setStatusCode(body.toString().contains("corr-500") ? 500 : 200)
+                                .end("{\"message\":\"payment processed successfully\"}");
+                    });
+                })
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        processor = new VertxRemotePaymentProcessor(vertx.createHttpClient(),
+                URI.create("http://localhost:" + server.actualPort()), Duration.ofSeconds(5), jsonb);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        jsonb.close();
+    }
+
+    @Test
+    @DisplayName("Should post the payment as JSON and return only the status code")
+    void shouldPostPaymentAndReturnStatus() throws Exception {
+        var response = processor.processPayment(new RemotePaymentRequest("corr-1", new BigDecimal("19.90"), REQUESTED_AT));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.hasEntity()).isFalse();
+        assertThat(receivedBody.get(5, TimeUnit.SECONDS))
+                .isEqualTo("{\"correlationId\":\"corr-1\",\"amount\":19.90,\"requestedAt\":\"2025-07-21T10:00:00.123Z\"}");
+    }
+
+    @Test
+    @DisplayName("Should return server errors as status codes")
+    void shouldReturnServerErrors() {
+        var response = processor.processPayment(new RemotePaymentRequest("corr-500", BigDecimal.ONE, REQUESTED_AT));
+
+        assertThat(response.getStatus()).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Should read the service health")
+    void shouldReadServiceHealth() {
+        var response = processor.serviceHealth();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getEntity()).isEqualTo(new ServiceHealth(true, 120));
+    }
+}
@@ -0,0 +1,152 @@
+package org.acme.infrastructure;
+
+import org.acme.domain.PaymentsTests;
+import org.acme.domain.RemotePaymentName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WriteAheadLoggedPayments Tests")
+class WriteAheadLoggedPaymentsTests implements PaymentsTests.AllTests {
+
+    private static final Instant REQUESTED_AT = Instant.parse("2025-07-21T10:00:00.123456Z");
+
+    @TempDir
+    Path directory;
+
+    private WriteAheadLoggedPayments payments;
+
+    @BeforeEach
+    void setUp() {
+        payments = restart();
+    }
+
+    private WriteAheadLoggedPayments restart() {
+        return restart(PaymentLog.DEFAULT_SEGMENT_SLOTS);
+    }
+
+    @Override
+    public Context testContext() {
+        return Context.of(payments);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the summary from the log after a restart")
+    void shouldRebuildSummaryAfterRestart() {
+        payments.add(PaymentsTests.createPayment("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3", RemotePaymentName.DEFAULT, new BigDecimal("19.90"), REQUESTED_AT));
+        payments.addAll(List.of(
+                PaymentsTests.createPayment("corr-2", RemotePaymentName.FALLBACK, new BigDecimal("0.10"), REQUESTED_AT.plusSeconds(1)),
+                PaymentsTests.createPayment("corr-3", RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT.plusSeconds(2))));
+        var expected = payments.getSummary(REQUESTED_AT, REQUESTED_AT.plusSeconds(1));
+
+        WriteAheadLoggedPayments restarted = restart();
+
+        assertThat(restarted.getSummary(REQUESTED_AT, REQUESTED_AT.plusSeconds(1))).isEqualTo(expected);
+        assertThat(restarted.getSummary(null, null)).isEqualTo(payments.getSummary(null, null));
+    }
+
+    @Test
+    @DisplayName("Should replay the payments of every previous run and nothing after a purge")
+    void shouldReplayEveryRunUntilPurged() {
+        payments.add(PaymentsTests.createPayment("corr-1", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT));
+        WriteAheadLoggedPayments second = restart();
+        second.add(PaymentsTests.createPayment("corr-2", RemotePaymentName.DEFAULT, BigDecimal.TEN, REQUESTED_AT));
+
+        assertThat(restart().getSummary(null, null).defaultPaymentSummary().totalRequests()).isEqualTo(2L);
+
+        second.purge();
+
+        assertThat(restart().getSummary(null, null).defaultPaymentSummary().totalRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should restore compacted payments from the snapshot and replay only the log tail")
+    void shouldRestoreSnapshotAndLogTail() throws IOException {
+        WriteAheadLoggedPayments small = restart(4);
+        Instant base = Instant.parse("2025-07-21T10:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            small.add(PaymentsTests.createPayment("corr-" + i, RemotePaymentName.values()[i % 2], new BigDecimal("1.50"), base.plusMillis(i).plusNanos(1_000)));
+        }
+        var expected = small.getSummary(base, base.plusMillis(9));
+
+        small.snapshot();
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("payments.snapshot", "payments-0000000004.wal");
+        }
+        WriteAheadLoggedPayments restarted = restart(4);
+        assertThat(restarted.getSummary(base, base.plusMillis(9))).isEqualTo(expected);
+        assertThat(restarted.getSummary(null, null).defaultPaymentSummary().totalRequests()).isEqualTo(10L);
+        assertThat(restarted.getSummary(null, null).fallbackPaymentSummary().totalAmount()).isEqualTo(new BigDecimal("15.00"));
+    }
+
+    @Test
+    @DisplayName("Should compact the log in the background once started, and no more once closed")
+    void shouldCompactInBackgroundUntilClosed() throws IOException, InterruptedException {
+        WriteAheadLoggedPayments started = new WriteAheadLoggedPayments(new InMemoryPayments(), new PaymentLog(directory, 4),
+                new PaymentSnapshots(directory), Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMillis(1));
+        started.start();
+        for (int i = 0; i < 10; i++) {
+            started.add(PaymentsTests.createPayment("corr-" + i, RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT.plusMillis(i)));
+        }
+        for (int wait = 0; wait < 500 && !walFiles().equals(List.of("payments-0000000001.wal", "payments-0000000002.wal")); wait++)
+            Thread.sleep(10);
+        assertThat(walFiles()).containsExactly("payments-0000000001.wal", "payments-0000000002.wal");
+
+        started.close();
+        for (int i = 10; i < 20; i++) {
+            started.add(PaymentsTests.createPayment("corr-" + i, RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT.plusMillis(i)));
+        }
+        Thread.sleep(50);
+
+        assertThat(walFiles()).hasSize(4);
+        assertThat(restart(4).getSummary(null, null).defaultPaymentSummary().totalRequests()).isEqualTo(20L);
+    }
+
+    private List<String> walFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".wal")).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay after a restart what the store holds when purges race with adds")
+    void shouldKeepLogAndStoreAlikeAcrossPurges() throws InterruptedException {
+        // one slot per segment, so nearly every add maps a new one
+        WriteAheadLoggedPayments racing = restart(1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<Thread> adders = IntStream.range(0, 4).mapToObj(adder -> Thread.ofPlatform().start(() -> {
+            for (int i = 0; adding.get(); i++)
+                racing.add(PaymentsTests.createPayment("corr-" + adder + "-" + i, RemotePaymentName.DEFAULT, BigDecimal.ONE, REQUESTED_AT));
+        })).toList();
+        try {
+            for (int purge = 0; purge < 200; purge++)
+                racing.purge();
+        } finally {
+            adding.set(false);
+            for (Thread adder : adders)
+                adder.join();
+        }
+
+        assertThat(restart(1).getSummary(null, null)).isEqualTo(racing.getSummary(null, null));
+    }
+
+    private WriteAheadLoggedPayments restart(int segmentSlots) {
+        return new WriteAheadLoggedPayments(new InMemoryPayments(), new PaymentLog(directory, segmentSlots),
+                new PaymentSnapshots(directory), Duration.ofMillis(1), Duration.ZERO, Duration.ZERO);
+    }
+}